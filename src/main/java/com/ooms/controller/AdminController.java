@@ -1,31 +1,78 @@
 package com.ooms.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ooms.dto.BulkStatusUpdateRequest;
+import com.ooms.dto.CachedReport;
+import com.ooms.dto.OrderExportRow;
+import com.ooms.dto.OrderSummary;
+import com.ooms.dto.StatusUpdateResult;
+import com.ooms.dto.UserSummary;
 import com.ooms.entity.Order;
+import com.ooms.entity.OrderStatus;
 import com.ooms.entity.User;
+import com.ooms.service.OrderArchiveService;
 import com.ooms.service.OrderService;
+import com.ooms.service.OutboxDispatcher;
+import com.ooms.service.ProductService;
+import com.ooms.service.ReportCache;
+import com.ooms.service.SalesCubeService;
 import com.ooms.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
+    private static final String CSV_HEADER = "id,userId,customerName,customerEmail,totalAmount,status,paymentStatus,createdAt\n";
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        return ResponseEntity.ok(userService.getAllUserSummaries());
     }
 
     @GetMapping("/users/{id}")
@@ -48,8 +95,65 @@ public class AdminController {
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<OrderSummary>> getAllOrders(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(orderService.getAllOrderSummaries(includeArchived));
+    }
+
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        boolean ndjson = format.equalsIgnoreCase("ndjson");
+        if (!ndjson && !format.equalsIgnoreCase("csv")) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        Set<OrderStatus> statuses = status == null || status.isEmpty() ? EnumSet.noneOf(OrderStatus.class) : EnumSet.copyOf(status);
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            if (ndjson) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                    orderService.exportOrders(statuses, from, to, includeArchived, row -> {
+                        try {
+                            generator.writeObject(row);
+                            generator.writeRaw('\n');
+                            if (++written[0] % EXPORT_FLUSH_ROWS == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                orderService.exportOrders(statuses, from, to, includeArchived, row -> {
+                    try {
+                        writer.write(toCsv(row));
+                        if (++written[0] % EXPORT_FLUSH_ROWS == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            }
+        };
+        MediaType contentType = ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (ndjson ? "ndjson" : "csv") + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/orders/archive")
+    public ResponseEntity<Map<String, Object>> archiveOrders() {
+        return ResponseEntity.ok(orderArchiveService.archive());
     }
 
     @PutMapping("/orders/{id}/status")
@@ -58,21 +162,93 @@ public class AdminController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    @PostMapping("/orders/status")
+    public ResponseEntity<List<StatusUpdateResult>> bulkUpdateOrderStatus(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(request.orderIds(), request.status()));
+    }
+
     @GetMapping("/reports/revenue")
-    public ResponseEntity<Map<String, Object>> getRevenueReport() {
-        Map<String, Object> report = orderService.getRevenueReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<CachedReport<Map<String, Object>>> getRevenueReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(reportCache.get("revenue:" + start + ":" + end, refresh,
+                () -> orderService.getRevenueReport(start, end)));
+    }
+
+    @PostMapping("/reports/revenue/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenueRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Map<String, Object> rebuilt = orderService.rebuildRevenueRollups(from, to);
+        // Both read the rollups just rewritten
+        reportCache.invalidate("revenue:", "dashboard");
+        return ResponseEntity.ok(rebuilt);
     }
 
     @GetMapping("/reports/sales")
-    public ResponseEntity<Map<String, Object>> getSalesReport() {
-        Map<String, Object> report = orderService.getSalesReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<CachedReport<Map<String, Object>>> getSalesReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        SalesCubeService.Granularity buckets = SalesCubeService.Granularity.valueOf(granularity.toUpperCase());
+        return ResponseEntity.ok(reportCache.get("sales:" + start + ":" + end + ":" + buckets, refresh,
+                () -> orderService.getSalesReport(start, end, buckets)));
     }
 
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = orderService.getDashboardStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<CachedReport<Map<String, Object>>> getDashboardStats(@RequestParam(defaultValue = "false") boolean refresh) {
+        return ResponseEntity.ok(reportCache.get("dashboard", refresh, orderService::getDashboardStats));
+    }
+
+    @GetMapping("/cache/products")
+    public ResponseEntity<Map<String, Object>> getProductCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    @GetMapping("/cache/reports")
+    public ResponseEntity<Map<String, Object>> getReportCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
+
+    @DeleteMapping("/cache/reports")
+    public ResponseEntity<Void> clearReportCache() {
+        reportCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxDispatcher.getStats());
+    }
+
+    @GetMapping("/inventory")
+    public ResponseEntity<Map<String, Object>> getInventoryLedgerStats() {
+        return ResponseEntity.ok(orderService.getInventoryStats());
+    }
+
+    private static String toCsv(OrderExportRow row) {
+        return row.id() + "," + row.userId() + "," + csvField(row.customerName()) + "," + csvField(row.customerEmail()) + ","
+                + row.totalAmount() + "," + row.status() + "," + (row.paymentStatus() == null ? "" : row.paymentStatus()) + ","
+                + row.createdAt() + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            // Keeps spreadsheets from evaluating user-supplied text as a formula
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 }
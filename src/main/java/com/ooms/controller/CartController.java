@@ -1,5 +1,6 @@
 package com.ooms.controller;
 
+import com.ooms.dto.CartItemView;
 import com.ooms.entity.CartItem;
 import com.ooms.entity.User;
 import com.ooms.service.CartService;
@@ -23,9 +24,9 @@ public class CartController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<CartItem>> getCart(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<CartItemView>> getCart(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
-        return ResponseEntity.ok(cartService.getCartItems(user));
+        return ResponseEntity.ok(cartService.getCartItemViews(user));
     }
 
     @PostMapping
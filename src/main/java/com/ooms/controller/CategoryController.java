@@ -1,12 +1,18 @@
 package com.ooms.controller;
 
+import com.ooms.dto.CategoryNode;
+import com.ooms.dto.ProductSummary;
 import com.ooms.entity.Category;
+import com.ooms.service.CatalogVersions;
 import com.ooms.service.CategoryService;
+import com.ooms.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +23,28 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest request) {
+        String etag = catalogVersions.categoriesEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(categoryService.getAllCategories());
+    }
+
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNode>> getCategoryTree(WebRequest request) {
+        String etag = catalogVersions.categoriesEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(categoryService.getCategoryTree().getRoots());
     }
 
     @GetMapping("/{id}")
@@ -29,6 +54,11 @@ public class CategoryController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/products")
+    public ResponseEntity<List<ProductSummary>> getCategoryProducts(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getProductsInCategoryTree(id));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Category> createCategory(@Valid @RequestBody Category category) {
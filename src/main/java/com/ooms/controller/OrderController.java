@@ -1,10 +1,16 @@
 package com.ooms.controller;
 
+import com.ooms.dto.CursorPage;
+import com.ooms.dto.OrderHistoryEntry;
+import com.ooms.dto.OrderSummary;
+import com.ooms.dto.PaymentInitiation;
+import com.ooms.dto.StockReservation;
 import com.ooms.entity.Order;
+import com.ooms.entity.PaymentMethod;
 import com.ooms.entity.User;
+import com.ooms.service.IdempotencyService;
 import com.ooms.service.OrderService;
 import com.ooms.service.UserService;
-import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,19 +29,56 @@ public class OrderController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
-    public ResponseEntity<List<Order>> getUserOrders(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<OrderSummary>> getUserOrders(@AuthenticationPrincipal UserDetails userDetails,
+                                                            @RequestParam(defaultValue = "false") boolean includeArchived) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
-        List<Order> orders = orderService.getOrdersByUser(user);
+        List<OrderSummary> orders = orderService.getOrderSummariesByUser(user, includeArchived);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<CursorPage<OrderHistoryEntry>> getOrderHistory(@AuthenticationPrincipal UserDetails userDetails,
+                                                                       @RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = "20") int size,
+                                                                       @RequestParam(defaultValue = "false") boolean includeArchived) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+        return ResponseEntity.ok(orderService.getOrderHistory(user, after, size, includeArchived));
+    }
+
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@AuthenticationPrincipal UserDetails userDetails, @Valid @RequestBody Order order) {
+    public ResponseEntity<OrderSummary> placeOrder(@AuthenticationPrincipal UserDetails userDetails,
+                                                   @RequestParam(required = false) String reservationId,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+        return idempotencyService.execute("orders", user.getId(), idempotencyKey, "reservationId=" + reservationId, OrderSummary.class,
+                record -> toSummary(user, orderService.placeOrder(user, reservationId, placed -> record.accept(toSummary(user, placed)))));
+    }
+
+    @PostMapping("/{id}/payments")
+    public ResponseEntity<PaymentInitiation> initiatePayment(@AuthenticationPrincipal UserDetails userDetails,
+                                                             @PathVariable Long id,
+                                                             @RequestParam PaymentMethod method,
+                                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
-        order.setUser(user);
-        Order placedOrder = orderService.placeOrder(order);
-        return ResponseEntity.ok(placedOrder);
+        return idempotencyService.execute("payments", user.getId(), idempotencyKey, id + ":" + method, PaymentInitiation.class,
+                record -> orderService.initiatePayment(user, id, method, record));
+    }
+
+    @PostMapping("/reservation")
+    public ResponseEntity<StockReservation> reserveCart(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+        return ResponseEntity.ok(orderService.reserveCart(user));
+    }
+
+    @DeleteMapping("/reservation/{reservationId}")
+    public ResponseEntity<Void> cancelReservation(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String reservationId) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+        orderService.cancelReservation(user, reservationId);
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{id}/status")
@@ -43,4 +86,9 @@ public class OrderController {
         Order updatedOrder = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(updatedOrder);
     }
+
+    private static OrderSummary toSummary(User user, Order order) {
+        return new OrderSummary(order.getId(), user.getId(), user.getName(), order.getTotalAmount(),
+                order.getStatus(), order.getPaymentStatus(), order.getCreatedAt(), (long) order.getOrderItems().size());
+    }
 }
@@ -1,29 +1,94 @@
 package com.ooms.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ooms.dto.CursorPage;
+import com.ooms.dto.FacetedProductPage;
+import com.ooms.dto.ImportReport;
+import com.ooms.dto.ProductCursor;
+import com.ooms.dto.ProductSuggestion;
+import com.ooms.dto.ProductSummary;
 import com.ooms.entity.Product;
+import com.ooms.service.CatalogVersions;
+import com.ooms.service.ProductImportService;
 import com.ooms.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ProductImportService productImportService;
+
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<ProductSummary>> getAllProducts(WebRequest request) {
+        String etag = catalogVersions.productsEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(productService.getProductSummaries());
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = format.equalsIgnoreCase("ndjson");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                int[] written = {0};
+                productService.streamAllProducts(product -> {
+                    try {
+                        generator.writeObject(product);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++written[0] % STREAM_FLUSH_ROWS == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+        MediaType contentType = ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
     }
 
     @GetMapping("/search")
@@ -44,10 +109,58 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/search", params = "facets=true")
+    public ResponseEntity<FacetedProductPage> searchProductsWithFacets(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        return ResponseEntity.ok(productService.getProductsWithFacets(name, categoryId, minPrice, maxPrice, pageable));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
+    }
+
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<Product>> searchProductsByCursor(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        Slice<Product> slice = productService.getProductsWithFiltersAfter(name, categoryId, minPrice, maxPrice, sortBy, descending, after, size);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Product last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = ProductCursor.after(last, sortBy, descending).encode();
+        }
+        return ResponseEntity.ok(new CursorPage<>(slice.getContent(), slice.getNumberOfElements(), slice.hasNext(), nextCursor));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersions.productEtag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -57,6 +170,15 @@ public class ProductController {
         return ResponseEntity.ok(productService.save(product));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importProducts(@RequestHeader("Content-Type") String contentType, InputStream body) throws IOException {
+        ImportReport report = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? productImportService.importCsv(body)
+                : productImportService.importNdjson(body);
+        return ResponseEntity.ok(report);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody Product product) {
@@ -1,8 +1,15 @@
 package com.ooms.controller;
 
+import com.ooms.dto.BestSeller;
+import com.ooms.dto.CachedReport;
+import com.ooms.entity.OrderStatus;
 import com.ooms.repository.OrderRepository;
 import com.ooms.repository.ProductRepository;
+import com.ooms.service.BestSellerTracker;
+import com.ooms.service.OrderStatusCounters;
+import com.ooms.service.ReportCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,31 +29,59 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class ReportController {
 
+    private static final int MAX_BEST_SELLERS = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private BestSellerTracker bestSellerTracker;
+
+    @Autowired
+    private ReportCache reportCache;
+
     // Removed conflicting sales report method - now handled by AdminController
 
+    /**
+     * Top products by units ordered. The hour, day and month windows come from memory with an error bound;
+     * "all" aggregates every order line in the database and is exact.
+     */
     @GetMapping("/best-selling-products")
-    public ResponseEntity<List<Object[]>> getBestSellingProducts(
-            @RequestParam(defaultValue = "10") int limit) {
-
-        List<Object[]> bestSellers = orderRepository.getBestSellingProducts(limit);
-        return ResponseEntity.ok(bestSellers);
+    public ResponseEntity<CachedReport<Map<String, Object>>> getBestSellingProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        if (limit < 1 || limit > MAX_BEST_SELLERS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_BEST_SELLERS);
+        }
+        if (!window.equalsIgnoreCase("all")) {
+            BestSellerTracker.Window tracked = BestSellerTracker.Window.valueOf(window.toUpperCase());
+            return ResponseEntity.ok(reportCache.live(() -> bestSellerTracker.top(tracked, limit)));
+        }
+        return ResponseEntity.ok(reportCache.get("best-sellers:all:" + limit, refresh, () -> allTimeBestSellers(limit)));
     }
 
     @GetMapping("/order-status-summary")
-    public ResponseEntity<Map<String, Long>> getOrderStatusSummary() {
-        Map<String, Long> summary = new HashMap<>();
-        summary.put("PLACED", orderRepository.countByStatus("PLACED"));
-        summary.put("PROCESSED", orderRepository.countByStatus("PROCESSED"));
-        summary.put("SHIPPED", orderRepository.countByStatus("SHIPPED"));
-        summary.put("DELIVERED", orderRepository.countByStatus("DELIVERED"));
-        summary.put("CANCELLED", orderRepository.countByStatus("CANCELLED"));
-
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<CachedReport<Map<OrderStatus, Long>>> getOrderStatusSummary() {
+        return ResponseEntity.ok(reportCache.live(orderStatusCounters::snapshot));
+    }
+
+    private Map<String, Object> allTimeBestSellers(int limit) {
+        List<BestSeller> products = new ArrayList<>();
+        for (Object[] row : orderRepository.getBestSellingProducts(PageRequest.of(0, limit))) {
+            long units = ((Number) row[2]).longValue();
+            products.add(new BestSeller((Long) row[0], (String) row[1], units, units));
+        }
+        Map<String, Object> report = new HashMap<>();
+        report.put("window", "ALL");
+        report.put("products", products);
+        report.put("maxError", 0);
+        return report;
     }
 }
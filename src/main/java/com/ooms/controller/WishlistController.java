@@ -1,5 +1,6 @@
 package com.ooms.controller;
 
+import com.ooms.dto.WishlistItemView;
 import com.ooms.entity.User;
 import com.ooms.entity.WishlistItem;
 import com.ooms.service.UserService;
@@ -23,9 +24,9 @@ public class WishlistController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<WishlistItem>> getWishlist(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<WishlistItemView>> getWishlist(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
-        return ResponseEntity.ok(wishlistService.getWishlist(user));
+        return ResponseEntity.ok(wishlistService.getWishlistViews(user));
     }
 
     @PostMapping
@@ -0,0 +1,5 @@
+package com.ooms.dto;
+
+// units is the estimate; the true count is at least minUnits and within the report's maxError of units
+public record BestSeller(Long productId, String productName, long units, long minUnits) {
+}
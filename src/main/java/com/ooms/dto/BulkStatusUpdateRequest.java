@@ -0,0 +1,10 @@
+package com.ooms.dto;
+
+import com.ooms.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequest(@NotEmpty List<Long> orderIds, @NotNull OrderStatus status) {
+}
@@ -0,0 +1,7 @@
+package com.ooms.dto;
+
+import java.time.LocalDateTime;
+
+// stale means the background refresh is behind, usually because the last attempt failed
+public record CachedReport<T>(T report, LocalDateTime computedAt, boolean stale) {
+}
@@ -0,0 +1,8 @@
+package com.ooms.dto;
+
+public record CartItemView(Long id, Integer quantity, ProductRef product) {
+
+    public CartItemView(Long id, Integer quantity, Long productId, String productName, Double price, String imageUrl, Integer stock) {
+        this(id, quantity, new ProductRef(productId, productName, price, imageUrl, stock));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ooms.dto;
+
+import java.util.List;
+
+public class CategoryNode {
+
+    private final Long id;
+    private final String name;
+    private final Long parentId;
+    private final List<CategoryNode> children;
+
+    public CategoryNode(Long id, String name, Long parentId, List<CategoryNode> children) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
+        this.children = children;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public List<CategoryNode> getChildren() {
+        return children;
+    }
+}
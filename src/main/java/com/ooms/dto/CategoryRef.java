@@ -0,0 +1,4 @@
+package com.ooms.dto;
+
+public record CategoryRef(Long id, String name) {
+}
@@ -0,0 +1,7 @@
+package com.ooms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenueRow(LocalDate day, BigDecimal revenue, Long orderCount, BigDecimal reversedRevenue, Long reversedCount) {
+}
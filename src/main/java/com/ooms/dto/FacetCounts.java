@@ -0,0 +1,22 @@
+package com.ooms.dto;
+
+import java.util.List;
+
+public class FacetCounts {
+
+    private final List<FacetValue> categories;
+    private final List<FacetValue> priceRanges;
+
+    public FacetCounts(List<FacetValue> categories, List<FacetValue> priceRanges) {
+        this.categories = categories;
+        this.priceRanges = priceRanges;
+    }
+
+    public List<FacetValue> getCategories() {
+        return categories;
+    }
+
+    public List<FacetValue> getPriceRanges() {
+        return priceRanges;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ooms.dto;
+
+import com.ooms.entity.Product;
+import org.springframework.data.domain.Page;
+
+public class FacetedProductPage {
+
+    private final Page<Product> results;
+    private final FacetCounts facets;
+
+    public FacetedProductPage(Page<Product> results, FacetCounts facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+
+    public Page<Product> getResults() {
+        return results;
+    }
+
+    public FacetCounts getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ooms.dto;
+
+import com.ooms.entity.OrderStatus;
+import com.ooms.entity.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+public record OrderExportRow(Long id, Long userId, String customerName, String customerEmail, Double totalAmount,
+                             OrderStatus status, PaymentStatus paymentStatus, LocalDateTime createdAt) {
+}
@@ -0,0 +1,20 @@
+package com.ooms.dto;
+
+import com.ooms.entity.OrderStatus;
+import com.ooms.entity.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrderHistoryEntry(Long id, Double totalAmount, OrderStatus status, PaymentStatus paymentStatus,
+                                LocalDateTime createdAt, List<OrderHistoryItem> items) {
+
+    // JPQL constructor expression; items are attached per page with withItems
+    public OrderHistoryEntry(Long id, Double totalAmount, OrderStatus status, PaymentStatus paymentStatus, LocalDateTime createdAt) {
+        this(id, totalAmount, status, paymentStatus, createdAt, List.of());
+    }
+
+    public OrderHistoryEntry withItems(List<OrderHistoryItem> items) {
+        return new OrderHistoryEntry(id, totalAmount, status, paymentStatus, createdAt, items);
+    }
+}
@@ -0,0 +1,4 @@
+package com.ooms.dto;
+
+public record OrderHistoryItem(Long orderId, Long productId, String productName, Integer quantity, Double price) {
+}
@@ -0,0 +1,6 @@
+package com.ooms.dto;
+
+import com.ooms.entity.PaymentMethod;
+
+public record PaymentInitiation(Long orderId, PaymentMethod method, String reference) {
+}
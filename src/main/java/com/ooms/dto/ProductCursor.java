@@ -0,0 +1,61 @@
+package com.ooms.dto;
+
+import com.ooms.entity.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque keyset position for product listings: the sort key of the last row seen plus its id as tie-breaker.
+ */
+public class ProductCursor {
+
+    public static final Set<String> SORT_KEYS = Set.of("id", "name", "price");
+
+    private final String sortBy;
+    private final boolean descending;
+    private final Long id;
+    private final String value;
+
+    public ProductCursor(String sortBy, boolean descending, Long id, String value) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static ProductCursor after(Product product, String sortBy, boolean descending) {
+        String value = switch (sortBy) {
+            case "name" -> product.getName();
+            case "price" -> String.valueOf(product.getPrice());
+            default -> String.valueOf(product.getId());
+        };
+        return new ProductCursor(sortBy, descending, product.getId(), value);
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            return new ProductCursor(parts[0], "d".equals(parts[1]), Long.valueOf(parts[2]), parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + "|" + (descending ? "d" : "a") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortBy() { return sortBy; }
+
+    public boolean isDescending() { return descending; }
+
+    public Long getId() { return id; }
+
+    public String getValue() { return value; }
+
+    public Double getPriceValue() { return Double.valueOf(value); }
+}
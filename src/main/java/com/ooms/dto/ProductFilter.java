@@ -0,0 +1,70 @@
+package com.ooms.dto;
+
+import java.util.Collection;
+
+public class ProductFilter {
+
+    private Collection<Long> ids;
+    private String name;
+    private Long categoryId;
+    private Collection<Long> categoryIds;
+    private Double minPrice;
+    private Double maxPrice;
+
+    public ProductFilter() {}
+
+    public ProductFilter(String name, Long categoryId, Double minPrice, Double maxPrice) {
+        this.name = name;
+        this.categoryId = categoryId;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public Collection<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Collection<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Collection<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(Collection<Long> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+}
@@ -0,0 +1,4 @@
+package com.ooms.dto;
+
+public record ProductRef(Long id, String name, Double price, String imageUrl, Integer stock) {
+}
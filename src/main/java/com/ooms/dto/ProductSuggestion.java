@@ -0,0 +1,4 @@
+package com.ooms.dto;
+
+public record ProductSuggestion(Long id, String name, long unitsSold) {
+}
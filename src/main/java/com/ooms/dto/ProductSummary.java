@@ -0,0 +1,9 @@
+package com.ooms.dto;
+
+public record ProductSummary(Long id, String name, String description, Double price, Integer stock, String imageUrl, CategoryRef category) {
+
+    // Used by JPQL constructor expressions, which cannot build the nested category directly
+    public ProductSummary(Long id, String name, String description, Double price, Integer stock, String imageUrl, Long categoryId, String categoryName) {
+        this(id, name, description, price, stock, imageUrl, categoryId == null ? null : new CategoryRef(categoryId, categoryName));
+    }
+}
@@ -0,0 +1,10 @@
+package com.ooms.dto;
+
+import com.ooms.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// categoryId is null for lines whose product has no category or no longer exists
+public record SalesCubeCell(LocalDateTime bucket, Long categoryId, String categoryName, OrderStatus status,
+                            double revenue, long units, long orders) {
+}
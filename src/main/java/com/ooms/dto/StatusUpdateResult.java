@@ -0,0 +1,11 @@
+package com.ooms.dto;
+
+import com.ooms.entity.OrderStatus;
+
+/**
+ * Outcome for one order of a bulk status change; {@code status} is the order's status afterwards.
+ */
+public record StatusUpdateResult(Long orderId, Outcome outcome, OrderStatus status) {
+
+    public enum Outcome { UPDATED, CONFLICT, NOT_FOUND }
+}
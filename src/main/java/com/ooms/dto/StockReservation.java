@@ -0,0 +1,7 @@
+package com.ooms.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record StockReservation(String id, Instant expiresAt, Map<Long, Integer> quantities) {
+}
@@ -0,0 +1,8 @@
+package com.ooms.dto;
+
+import com.ooms.entity.Role;
+
+import java.time.LocalDateTime;
+
+public record UserSummary(Long id, String name, String email, String phone, Role role, LocalDateTime createdAt) {
+}
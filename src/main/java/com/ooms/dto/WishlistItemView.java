@@ -0,0 +1,8 @@
+package com.ooms.dto;
+
+public record WishlistItemView(Long id, ProductRef product) {
+
+    public WishlistItemView(Long id, Long productId, String productName, Double price, String imageUrl, Integer stock) {
+        this(id, new ProductRef(productId, productName, price, imageUrl, stock));
+    }
+}
@@ -9,7 +9,9 @@ import jakarta.validation.constraints.Positive;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_ids")
+    @TableGenerator(name = "cart_ids", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "cart", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
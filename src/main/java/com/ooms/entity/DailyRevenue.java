@@ -0,0 +1,82 @@
+package com.ooms.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One slot of a day's order totals, keyed by the order's creation date. Each day is split over a fixed number of
+ * slots (order id modulo the slot count) so concurrent checkouts do not all queue on the same row lock; readers
+ * sum the slots.
+ */
+@Entity
+@Table(name = "daily_revenue")
+@IdClass(DailyRevenue.Key.class)
+public class DailyRevenue {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private int slot;
+
+    // Every order placed on the day, including ones later cancelled or refunded
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    // The part of the above that was cancelled or refunded since
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal reversedRevenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long reversedCount;
+
+    // Getters and Setters
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public int getSlot() { return slot; }
+    public void setSlot(int slot) { this.slot = slot; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getReversedRevenue() { return reversedRevenue; }
+    public void setReversedRevenue(BigDecimal reversedRevenue) { this.reversedRevenue = reversedRevenue; }
+
+    public long getReversedCount() { return reversedCount; }
+    public void setReversedCount(long reversedCount) { this.reversedCount = reversedCount; }
+
+    public static class Key implements Serializable {
+
+        private LocalDate day;
+
+        private int slot;
+
+        public Key() {}
+
+        public Key(LocalDate day, int slot) {
+            this.day = day;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && slot == key.slot && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, slot);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ooms.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord {
+
+    // Scope, user id and the client's Idempotency-Key, e.g. "orders:42:5f0c..."
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String fingerprint, String responseBody, LocalDateTime expiresAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.responseBody = responseBody;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -2,17 +2,21 @@ package com.ooms.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id_created_at", columnList = "user_id, createdAt"),
+        @Index(name = "idx_orders_created_at", columnList = "createdAt")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_ids")
+    @TableGenerator(name = "orders_ids", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "orders", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -26,12 +30,19 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus;
 
-    @CreationTimestamp
+    // Stamped on persist rather than on the deferred, batched insert, so it is known while the order is being placed
     private LocalDateTime createdAt;
 
+    // False while the order's quantities are only deducted in the in-memory inventory ledger
+    @Column(nullable = false)
+    private boolean stockApplied = true;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<OrderItem> orderItems;
 
@@ -51,6 +62,13 @@ public class Order {
         this.paymentStatus = paymentStatus;
     }
 
+    @PrePersist
+    void stampCreatedAt() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -64,12 +82,18 @@ public class Order {
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public PaymentStatus getPaymentStatus() { return paymentStatus; }
     public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public boolean isStockApplied() { return stockApplied; }
+    public void setStockApplied(boolean stockApplied) { this.stockApplied = stockApplied; }
+
     public Set<OrderItem> getOrderItems() { return orderItems; }
     public void setOrderItems(Set<OrderItem> orderItems) { this.orderItems = orderItems; }
 
@@ -10,7 +10,9 @@ import jakarta.validation.constraints.PositiveOrZero;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_ids")
+    @TableGenerator(name = "order_items_ids", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -1,9 +1,39 @@
 package com.ooms.entity;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PLACED,
     PROCESSED,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PLACED, EnumSet.of(PROCESSED, CANCELLED));
+        TRANSITIONS.put(PROCESSED, EnumSet.of(SHIPPED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    // Statuses an order may be in to move to the target
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((from, to) -> {
+            if (to.contains(target)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
 }
@@ -0,0 +1,7 @@
+package com.ooms.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
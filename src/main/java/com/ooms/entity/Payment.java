@@ -9,7 +9,9 @@ import jakarta.validation.constraints.PositiveOrZero;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payments_ids")
+    @TableGenerator(name = "payments_ids", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "payments", allocationSize = 50)
     private Long id;
 
     @NotNull
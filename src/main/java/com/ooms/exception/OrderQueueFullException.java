@@ -0,0 +1,15 @@
+package com.ooms.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OrderQueueFullException(long retryAfterSeconds) {
+        super("Order intake is at capacity, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,9 +1,13 @@
 package com.ooms.repository;
 
+import com.ooms.dto.CartItemView;
 import com.ooms.entity.CartItem;
 import com.ooms.entity.Product;
 import com.ooms.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,7 +18,15 @@ public interface CartRepository extends JpaRepository<CartItem, Long> {
 
     List<CartItem> findByUser(User user);
 
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user = :user")
+    List<CartItem> findWithProductByUser(@Param("user") User user);
+
+    @Query("SELECT new com.ooms.dto.CartItemView(ci.id, ci.quantity, p.id, p.name, p.price, p.imageUrl, p.stock) FROM CartItem ci JOIN ci.product p WHERE ci.user.id = :userId ORDER BY ci.id")
+    List<CartItemView> findViewsByUserId(@Param("userId") Long userId);
+
     Optional<CartItem> findByUserAndProduct(User user, Product product);
 
-    void deleteByUser(User user);
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.user = :user")
+    void deleteByUser(@Param("user") User user);
 }
@@ -2,6 +2,7 @@ package com.ooms.repository;
 
 import com.ooms.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByParent(Category parent);
 
     List<Category> findByParentIsNull();
+
+    @Query("SELECT c.id, c.name, p.id FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findAllIdNameAndParentId();
 }
@@ -0,0 +1,23 @@
+package com.ooms.repository;
+
+import com.ooms.dto.DailyRevenueRow;
+import com.ooms.entity.DailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, DailyRevenue.Key>, DailyRevenueRepositoryCustom {
+
+    @Query("SELECT new com.ooms.dto.DailyRevenueRow(r.day, SUM(r.revenue), SUM(r.orderCount), SUM(r.reversedRevenue), SUM(r.reversedCount)) "
+            + "FROM DailyRevenue r WHERE r.day BETWEEN :from AND :to GROUP BY r.day ORDER BY r.day")
+    List<DailyRevenueRow> findDaily(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) - COALESCE(SUM(r.reversedRevenue), 0) FROM DailyRevenue r")
+    BigDecimal getNetRevenue();
+}
@@ -0,0 +1,20 @@
+package com.ooms.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DailyRevenueRepositoryCustom {
+
+    void addPlaced(LocalDate day, Long orderId, double amount);
+
+    // Moves the orders' totals into the reversed columns of the days they were placed on
+    void addReversed(Collection<Long> orderIds);
+
+    /**
+     * Recomputes the rollups for the given days from the live and archived orders.
+     * Either bound may be null to leave that side open.
+     *
+     * @return the number of rollup rows written
+     */
+    int rebuild(LocalDate from, LocalDate to);
+}
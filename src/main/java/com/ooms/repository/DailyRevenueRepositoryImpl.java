@@ -0,0 +1,63 @@
+package com.ooms.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+public class DailyRevenueRepositoryImpl implements DailyRevenueRepositoryCustom {
+
+    // Rows per day; spreads concurrent checkouts over this many row locks
+    private static final int SLOTS = 16;
+
+    private static final String UPSERT = "INSERT INTO daily_revenue (day, slot, revenue, order_count, reversed_revenue, reversed_count) ";
+
+    private static final String ACCUMULATE = " ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), "
+            + "order_count = order_count + VALUES(order_count), reversed_revenue = reversed_revenue + VALUES(reversed_revenue), "
+            + "reversed_count = reversed_count + VALUES(reversed_count)";
+
+    private static final String REVERSED = "(status = 'CANCELLED' OR payment_status = 'REFUNDED')";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public void addPlaced(LocalDate day, Long orderId, double amount) {
+        MapSqlParameterSource params = new MapSqlParameterSource("day", day)
+                .addValue("slot", orderId % SLOTS)
+                .addValue("amount", BigDecimal.valueOf(amount));
+        jdbc.update(UPSERT + "VALUES (:day, :slot, :amount, 1, 0, 0)" + ACCUMULATE, params);
+    }
+
+    @Override
+    public void addReversed(Collection<Long> orderIds) {
+        jdbc.update(UPSERT + "SELECT DATE(created_at), id % " + SLOTS + ", 0, 0, SUM(total_amount), COUNT(*) FROM orders "
+                + "WHERE id IN (:ids) GROUP BY DATE(created_at), id % " + SLOTS + ACCUMULATE, new MapSqlParameterSource("ids", orderIds));
+    }
+
+    @Override
+    public int rebuild(LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder days = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder range = new StringBuilder(" WHERE 1 = 1");
+        if (from != null) {
+            days.append(" AND day >= :from");
+            range.append(" AND created_at >= :fromTime");
+            params.addValue("from", from).addValue("fromTime", from.atStartOfDay());
+        }
+        if (to != null) {
+            days.append(" AND day <= :to");
+            range.append(" AND created_at < :toTime");
+            params.addValue("to", to).addValue("toTime", to.plusDays(1).atStartOfDay());
+        }
+        jdbc.update("DELETE FROM daily_revenue" + days, params);
+        String columns = "SELECT created_at, id, total_amount, " + REVERSED + " AS reversed FROM ";
+        return jdbc.update(UPSERT + "SELECT DATE(created_at), id % " + SLOTS + ", SUM(total_amount), COUNT(*), "
+                + "SUM(CASE WHEN reversed THEN total_amount ELSE 0 END), SUM(CASE WHEN reversed THEN 1 ELSE 0 END) "
+                + "FROM (" + columns + "orders" + range + " UNION ALL " + columns + "orders_archive" + range + ") o "
+                + "GROUP BY DATE(created_at), id % " + SLOTS, params);
+    }
+}
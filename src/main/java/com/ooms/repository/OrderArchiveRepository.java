@@ -0,0 +1,138 @@
+package com.ooms.repository;
+
+import com.ooms.dto.OrderCursor;
+import com.ooms.dto.OrderHistoryEntry;
+import com.ooms.dto.OrderHistoryItem;
+import com.ooms.dto.OrderSummary;
+import com.ooms.entity.OrderStatus;
+import com.ooms.entity.PaymentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cold copies of finished orders. The archive tables are defined in db/archive-schema.sql and have no foreign
+ * keys, since archived rows may outlive the products they reference. Rows are copied by explicit column list,
+ * so a column added to a hot table fails loudly until the archive schema and {@link #COLUMNS} catch up.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    // Children first on copy and delete, parents last
+    private static final List<String> CHILD_TABLES = List.of("order_items", "payments", "delivery_assignments");
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "orders", "id, user_id, total_amount, status, version, payment_status, created_at, stock_applied",
+            "order_items", "id, order_id, product_id, quantity, price",
+            "payments", "id, order_id, transaction_id, amount, status, method",
+            "delivery_assignments", "id, order_id, staff_id, status");
+
+    private static final String SUMMARY_SQL = "SELECT o.id, o.user_id, u.name AS customer_name, o.total_amount, o.status, o.payment_status, o.created_at, "
+            + "(SELECT COUNT(*) FROM order_items_archive oi WHERE oi.order_id = o.id) AS item_count "
+            + "FROM orders_archive o JOIN users u ON u.id = o.user_id ";
+
+    private static final RowMapper<OrderSummary> SUMMARY_MAPPER = (rs, rowNum) -> new OrderSummary(
+            rs.getLong("id"), rs.getLong("user_id"), rs.getString("customer_name"), rs.getDouble("total_amount"),
+            orderStatus(rs.getString("status")), paymentStatus(rs.getString("payment_status")),
+            rs.getObject("created_at", LocalDateTime.class), rs.getLong("item_count"));
+
+    private static final RowMapper<OrderHistoryEntry> HISTORY_MAPPER = (rs, rowNum) -> new OrderHistoryEntry(
+            rs.getLong("id"), rs.getDouble("total_amount"), orderStatus(rs.getString("status")),
+            paymentStatus(rs.getString("payment_status")), rs.getObject("created_at", LocalDateTime.class));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Next {@code limit} archivable order ids after {@code afterId}, read without locks.
+     * Orders whose stock deduction is still pending in the inventory ledger are left alone.
+     */
+    public List<Long> findArchivableIds(Collection<OrderStatus> statuses, LocalDateTime createdBefore, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("statuses", statuses.stream().map(Enum::name).toList())
+                .addValue("createdBefore", createdBefore)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbc.queryForList("SELECT id FROM orders WHERE id > :afterId AND status IN (:statuses) AND created_at < :createdBefore "
+                + "AND stock_applied = TRUE ORDER BY id LIMIT :limit", params, Long.class);
+    }
+
+    // Locks exactly the candidate rows by primary key, skipping any a live transaction holds or has moved on
+    public Map<Long, OrderStatus> lockArchivable(Collection<Long> orderIds, Collection<OrderStatus> statuses) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds)
+                .addValue("statuses", statuses.stream().map(Enum::name).toList());
+        Map<Long, OrderStatus> locked = new LinkedHashMap<>();
+        jdbc.query("SELECT id, status FROM orders WHERE id IN (:ids) AND status IN (:statuses) AND stock_applied = TRUE "
+                + "ORDER BY id FOR UPDATE SKIP LOCKED", params, rs -> {
+            locked.put(rs.getLong(1), orderStatus(rs.getString(2)));
+        });
+        return locked;
+    }
+
+    // Copies the orders and their children to the archive tables, then deletes them from the hot tables
+    public void moveToArchive(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        for (String table : CHILD_TABLES) {
+            jdbc.update(copy(table, "order_id"), params);
+        }
+        jdbc.update(copy("orders", "id"), params);
+        for (String table : CHILD_TABLES) {
+            jdbc.update("DELETE FROM " + table + " WHERE order_id IN (:ids)", params);
+        }
+        jdbc.update("DELETE FROM orders WHERE id IN (:ids)", params);
+    }
+
+    public List<OrderSummary> findSummariesByUserId(Long userId) {
+        return jdbc.query(SUMMARY_SQL + "WHERE o.user_id = :userId ORDER BY o.created_at DESC, o.id DESC",
+                new MapSqlParameterSource("userId", userId), SUMMARY_MAPPER);
+    }
+
+    public List<OrderSummary> findAllSummaries() {
+        return jdbc.query(SUMMARY_SQL + "ORDER BY o.created_at DESC, o.id DESC", SUMMARY_MAPPER);
+    }
+
+    public List<OrderHistoryEntry> findHistory(Long userId, OrderCursor before, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId).addValue("limit", limit);
+        String keyset = "";
+        if (before != null) {
+            keyset = "AND (created_at < :createdAt OR (created_at = :createdAt AND id < :id)) ";
+            params.addValue("createdAt", before.getCreatedAt()).addValue("id", before.getId());
+        }
+        return jdbc.query("SELECT id, total_amount, status, payment_status, created_at FROM orders_archive WHERE user_id = :userId "
+                + keyset + "ORDER BY created_at DESC, id DESC LIMIT :limit", params, HISTORY_MAPPER);
+    }
+
+    public List<OrderHistoryItem> findHistoryItems(Collection<Long> orderIds) {
+        return jdbc.query("SELECT oi.order_id, oi.product_id, p.name, oi.quantity, oi.price FROM order_items_archive oi "
+                        + "LEFT JOIN products p ON p.id = oi.product_id WHERE oi.order_id IN (:ids) ORDER BY oi.order_id, oi.id",
+                new MapSqlParameterSource("ids", orderIds),
+                (rs, rowNum) -> new OrderHistoryItem(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4), rs.getDouble(5)));
+    }
+
+    public long count() {
+        Long count = jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM orders_archive", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String copy(String table, String orderColumn) {
+        String columns = COLUMNS.get(table);
+        return "INSERT INTO " + table + "_archive (" + columns + ") SELECT " + columns + " FROM " + table
+                + " WHERE " + orderColumn + " IN (:ids)";
+    }
+
+    private static OrderStatus orderStatus(String value) {
+        return value == null ? null : OrderStatus.valueOf(value);
+    }
+
+    private static PaymentStatus paymentStatus(String value) {
+        return value == null ? null : PaymentStatus.valueOf(value);
+    }
+}
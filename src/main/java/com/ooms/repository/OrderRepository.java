@@ -1,16 +1,32 @@
 package com.ooms.repository;
 
+import com.ooms.dto.OrderHistoryEntry;
+import com.ooms.dto.OrderHistoryItem;
+import com.ooms.dto.OrderSummary;
 import com.ooms.entity.Order;
 import com.ooms.entity.OrderStatus;
 import com.ooms.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -21,17 +37,65 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByUserId(Long userId);
 
+    Optional<Order> findByIdAndUserId(Long id, Long userId);
+
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
 
+    @Query("SELECT new com.ooms.dto.OrderSummary(o.id, u.id, u.name, o.totalAmount, o.status, o.paymentStatus, o.createdAt, COUNT(oi)) FROM Order o JOIN o.user u LEFT JOIN o.orderItems oi WHERE u.id = :userId GROUP BY o.id, u.id, u.name, o.totalAmount, o.status, o.paymentStatus, o.createdAt ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.ooms.dto.OrderSummary(o.id, u.id, u.name, o.totalAmount, o.status, o.paymentStatus, o.createdAt, COUNT(oi)) FROM Order o JOIN o.user u LEFT JOIN o.orderItems oi GROUP BY o.id, u.id, u.name, o.totalAmount, o.status, o.paymentStatus, o.createdAt ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findAllSummaries();
+
+    // Newest first; both variants are served by idx_orders_user_id_created_at
+    @Query("SELECT new com.ooms.dto.OrderHistoryEntry(o.id, o.totalAmount, o.status, o.paymentStatus, o.createdAt) FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHistoryEntry> findHistory(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.ooms.dto.OrderHistoryEntry(o.id, o.totalAmount, o.status, o.paymentStatus, o.createdAt) FROM Order o WHERE o.user.id = :userId AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHistoryEntry> findHistoryBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.ooms.dto.OrderHistoryItem(oi.order.id, p.id, p.name, oi.quantity, oi.price) FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.order.id, oi.id")
+    List<OrderHistoryItem> findHistoryItems(@Param("orderIds") Collection<Long> orderIds);
+
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE DATE(o.createdAt) BETWEEN :startDate AND :endDate")
     BigDecimal getTotalRevenueBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE DATE(o.createdAt) BETWEEN :startDate AND :endDate")
     Long countOrdersBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT p.name, SUM(oi.quantity) as totalSold FROM OrderItem oi JOIN oi.product p GROUP BY p.id ORDER BY totalSold DESC")
-    List<Object[]> getBestSellingProducts(@Param("limit") int limit);
+    @Query("SELECT p.id, p.name, SUM(oi.quantity) AS totalSold FROM OrderItem oi JOIN oi.product p GROUP BY p.id, p.name ORDER BY totalSold DESC")
+    List<Object[]> getBestSellingProducts(Pageable pageable);
+
+    // Product id, order time and quantity of every line ordered since the given time
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "-2147483648"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT oi.product.id, o.createdAt, oi.quantity FROM OrderItem oi JOIN oi.order o WHERE o.createdAt >= :since")
+    Stream<Object[]> streamOrderLinesSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.id")
+    List<Object[]> sumQuantityByProduct();
+
+    @Query("SELECT o.id FROM Order o WHERE o.stockApplied = false ORDER BY o.id")
+    List<Long> findIdsWithStockNotApplied();
+
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.id IN :orderIds GROUP BY oi.product.id")
+    List<Object[]> sumQuantityByProductForOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.stockApplied = true WHERE o.id IN :orderIds")
+    int markStockApplied(@Param("orderIds") Collection<Long> orderIds);
+
+    // Locks in id order so concurrent bulk updates over overlapping ids cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id, o.status FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Object[]> lockStatuses(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :target, o.version = o.version + 1 WHERE o.id IN :ids AND o.status IN :sources")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("sources") Collection<OrderStatus> sources, @Param("target") OrderStatus target);
+
+    @Query("SELECT o.id, u.email, u.name FROM Order o JOIN o.user u WHERE o.id IN :ids")
+    List<Object[]> findCustomerContacts(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
-    Long countByStatus(@Param("status") String status);
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
 }
@@ -0,0 +1,34 @@
+package com.ooms.repository;
+
+import com.ooms.entity.OutboxMessage;
+import com.ooms.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so several dispatchers never claim the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<OutboxMessage> findDueForUpdate(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = com.ooms.entity.OutboxStatus.SENT, m.sentAt = :sentAt, m.attempts = m.attempts + 1 WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -1,18 +1,27 @@
 package com.ooms.repository;
 
+import com.ooms.dto.ProductSummary;
 import com.ooms.entity.Category;
 import com.ooms.entity.Product;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     List<Product> findByCategory(Category category);
 
@@ -22,6 +31,29 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategoryId(Long categoryId);
 
-    @Query("SELECT p FROM Product p WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND (:categoryId IS NULL OR p.category.id = :categoryId) AND (:minPrice IS NULL OR p.price >= :minPrice) AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
-    Page<Product> findProductsWithFilters(@Param("name") String name, @Param("categoryId") Long categoryId, @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice, Pageable pageable);
+    @Query("SELECT new com.ooms.dto.ProductSummary(p.id, p.name, p.description, p.price, p.stock, p.imageUrl, c.id, c.name) FROM Product p LEFT JOIN p.category c ORDER BY p.id")
+    List<ProductSummary> findAllSummaries();
+
+    @Query("SELECT new com.ooms.dto.ProductSummary(p.id, p.name, p.description, p.price, p.stock, p.imageUrl, c.id, c.name) FROM Product p JOIN p.category c WHERE c.id IN :categoryIds ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id = :id")
+    Optional<Product> findWithCategoryById(@Param("id") Long id);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "-2147483648"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.id")
+    Stream<Product> streamAllWithCategory();
+
+    @Query("SELECT p.id, p.name FROM Product p")
+    List<Object[]> findAllIdAndName();
+
+    @Query("SELECT p.id, c.id, p.price FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findAllIdCategoryIdAndPrice();
+
+    @Query("SELECT p.id, p.stock FROM Product p")
+    List<Object[]> findAllIdAndStock();
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package com.ooms.repository;
+
+import com.ooms.dto.ProductCursor;
+import com.ooms.dto.ProductFilter;
+import com.ooms.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    Page<Product> findProducts(ProductFilter filter, Pageable pageable);
+
+    Slice<Product> findProductsAfter(ProductFilter filter, String sortBy, boolean descending, ProductCursor after, int size);
+
+    /**
+     * Decrements stock for every product in one JDBC batch, each update guarded by stock >= quantity.
+     * Returns the ids whose guard failed; the caller must roll back if the list is not empty.
+     */
+    List<Long> decrementStock(Map<Long, Integer> quantities);
+
+    /**
+     * Subtracts already-reserved quantities from stock in one JDBC batch, without a guard.
+     */
+    void deductStock(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,144 @@
+package com.ooms.repository;
+
+import com.ooms.dto.ProductCursor;
+import com.ooms.dto.ProductFilter;
+import com.ooms.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Product> findProducts(ProductFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(product).where(filterPredicates(cb, product, filter).toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        TypedQuery<Product> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<Product> findProductsAfter(ProductFilter filter, String sortBy, boolean descending, ProductCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> predicates = filterPredicates(cb, product, filter);
+        Path<Long> id = product.<Long>get("id");
+        if (after != null) {
+            Predicate afterId = descending ? cb.lessThan(id, after.getId()) : cb.greaterThan(id, after.getId());
+            switch (sortBy) {
+                case "name" -> predicates.add(keyset(cb, product.<String>get("name"), after.getValue(), descending, afterId));
+                case "price" -> predicates.add(keyset(cb, product.<Double>get("price"), after.getPriceValue(), descending, afterId));
+                default -> predicates.add(afterId);
+            }
+        }
+        query.select(product).where(predicates.toArray(new Predicate[0]));
+        if ("id".equals(sortBy)) {
+            query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            Path<?> key = product.get(sortBy);
+            query.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+        }
+
+        // One extra row tells us whether another slice follows without a COUNT(*)
+        List<Product> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new SliceImpl<>(new ArrayList<>(content), PageRequest.of(0, size, Sort.by(direction, sortBy, "id")), hasNext);
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?", lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                failed.add(lines.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void deductStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE products SET stock = stock - ? WHERE id = ?", lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+    }
+
+    private long count(ProductFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product)).where(filterPredicates(cb, product, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <T extends Comparable<? super T>> Predicate keyset(CriteriaBuilder cb, Path<T> key, T value, boolean descending, Predicate afterId) {
+        Predicate beyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+        return cb.or(beyond, cb.and(cb.equal(key, value), afterId));
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Product> product, ProductFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getIds() != null) {
+            predicates.add(product.get("id").in(filter.getIds()));
+        }
+        if (filter.getName() != null) {
+            predicates.add(cb.like(cb.lower(product.<String>get("name")), "%" + filter.getName().toLowerCase() + "%"));
+        }
+        if (filter.getCategoryIds() != null) {
+            predicates.add(product.get("category").get("id").in(filter.getCategoryIds()));
+        } else if (filter.getCategoryId() != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.ge(product.<Double>get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.le(product.<Double>get("price"), filter.getMaxPrice()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ooms.repository;
+
+import com.ooms.entity.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only scans for the sales report over live and archived orders. Lines are pre-aggregated per order and
+ * category in SQL, so every row the report sees stands for exactly one order in one category.
+ */
+@Repository
+public class SalesReportRepository {
+
+    @FunctionalInterface
+    public interface OrderCategoryConsumer {
+        void accept(LocalDateTime createdAt, OrderStatus status, Long categoryId, long units, double revenue);
+    }
+
+    private static final String SCAN_SQL = "SELECT o.created_at, o.status, p.category_id, SUM(oi.quantity) AS units, "
+            + "SUM(oi.quantity * oi.price) AS revenue FROM %s o JOIN %s oi ON oi.order_id = o.id "
+            + "LEFT JOIN products p ON p.id = oi.product_id "
+            + "WHERE o.id BETWEEN :fromId AND :toId AND o.created_at >= :from AND o.created_at < :to "
+            + "GROUP BY o.id, o.created_at, o.status, p.category_id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    // Smallest and largest order id created in [from, to), or null when there are none
+    public long[] findIdRange(LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource params = new MapSqlParameterSource("from", from).addValue("to", to);
+        String range = "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM %s WHERE created_at >= :from AND created_at < :to";
+        List<long[]> ranges = jdbc.query(range.formatted("orders") + " UNION ALL " + range.formatted("orders_archive"), params,
+                (rs, rowNum) -> {
+                    long min = rs.getLong("min_id");
+                    return rs.wasNull() ? null : new long[]{min, rs.getLong("max_id")};
+                });
+        long[] bounds = null;
+        for (long[] found : ranges) {
+            if (found == null) {
+                continue;
+            }
+            bounds = bounds == null ? found : new long[]{Math.min(bounds[0], found[0]), Math.max(bounds[1], found[1])};
+        }
+        return bounds;
+    }
+
+    public void scan(LocalDateTime from, LocalDateTime to, long fromId, long toId, OrderCategoryConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource("from", from)
+                .addValue("to", to)
+                .addValue("fromId", fromId)
+                .addValue("toId", toId);
+        for (String[] tables : new String[][]{{"orders", "order_items"}, {"orders_archive", "order_items_archive"}}) {
+            jdbc.query(SCAN_SQL.formatted(tables[0], tables[1]), params, rs -> {
+                long categoryId = rs.getLong("category_id");
+                Long category = rs.wasNull() ? null : categoryId;
+                consumer.accept(rs.getObject("created_at", LocalDateTime.class), OrderStatus.valueOf(rs.getString("status")),
+                        category, rs.getLong("units"), rs.getDouble("revenue"));
+            });
+        }
+    }
+}
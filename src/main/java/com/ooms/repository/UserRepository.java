@@ -1,8 +1,10 @@
 package com.ooms.repository;
 
+import com.ooms.dto.UserSummary;
 import com.ooms.entity.Role;
 import com.ooms.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(Role role);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.ooms.dto.UserSummary(u.id, u.name, u.email, u.phone, u.role, u.createdAt) FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
 }
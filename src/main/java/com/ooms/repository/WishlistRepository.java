@@ -1,9 +1,12 @@
 package com.ooms.repository;
 
+import com.ooms.dto.WishlistItemView;
 import com.ooms.entity.Product;
 import com.ooms.entity.User;
 import com.ooms.entity.WishlistItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +17,9 @@ public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
 
     List<WishlistItem> findByUser(User user);
 
+    @Query("SELECT new com.ooms.dto.WishlistItemView(w.id, p.id, p.name, p.price, p.imageUrl, p.stock) FROM WishlistItem w JOIN w.product p WHERE w.user.id = :userId ORDER BY w.id")
+    List<WishlistItemView> findViewsByUserId(@Param("userId") Long userId);
+
     Optional<WishlistItem> findByUserAndProduct(User user, Product product);
 
     void deleteByUser(User user);
@@ -0,0 +1,289 @@
+package com.ooms.service;
+
+import com.ooms.dto.BestSeller;
+import com.ooms.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Best sellers by units ordered over sliding windows, kept in memory. Each window is a ring of time buckets and
+ * each bucket a Space-Saving summary of at most {@code ooms.best-sellers.capacity} products, so memory is fixed
+ * however many products sell. An estimate can be off by at most the window's units divided by the capacity; every
+ * report carries the exact bound for its window as {@code maxError}. Cancellations are not subtracted.
+ */
+@Component
+public class BestSellerTracker {
+
+    public enum Window {
+        HOUR(Duration.ofMinutes(1), 60),
+        DAY(Duration.ofHours(1), 24),
+        MONTH(Duration.ofDays(1), 30);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(Duration bucket, int buckets) {
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+        }
+
+        // The window covers its full buckets plus the current, partly filled one
+        public Duration getSpan() {
+            return Duration.ofMillis(bucketMillis * (buckets + 1));
+        }
+    }
+
+    @Value("${ooms.best-sellers.capacity:1000}")
+    private int capacity;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    private final Map<Window, Ring> rings = new EnumMap<>(Window.class);
+
+    /**
+     * Replays the order lines of the longest window. Orders that commit while this runs may be left out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        long now = System.currentTimeMillis();
+        Map<Window, Ring> seeded = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            seeded.put(window, new Ring(window, capacity, now));
+        }
+        LocalDateTime since = LocalDateTime.now().minus(Window.MONTH.getSpan());
+        try (Stream<Object[]> lines = orderRepository.streamOrderLinesSince(since)) {
+            lines.forEach(line -> {
+                long at = ((LocalDateTime) line[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                for (Ring ring : seeded.values()) {
+                    ring.add((Long) line[0], (Integer) line[2], at);
+                }
+            });
+        }
+        synchronized (rings) {
+            rings.putAll(seeded);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long now = System.currentTimeMillis();
+        for (Window window : Window.values()) {
+            Ring ring = ring(window);
+            if (ring != null) {
+                event.getQuantities().forEach((productId, quantity) -> ring.add(productId, quantity, now));
+            }
+        }
+    }
+
+    public Map<String, Object> top(Window window, int limit) {
+        Ring ring = ring(window);
+        if (ring == null) {
+            throw new IllegalStateException("Best seller statistics are still loading");
+        }
+        Top top = ring.top(limit, System.currentTimeMillis());
+        List<BestSeller> products = new ArrayList<>(top.products().size());
+        for (BestSeller seller : top.products()) {
+            products.add(new BestSeller(seller.productId(), productSuggestIndex.nameOf(seller.productId()), seller.units(), seller.minUnits()));
+        }
+        Map<String, Object> report = new HashMap<>();
+        report.put("window", window);
+        report.put("span", window.getSpan().toString());
+        report.put("products", products);
+        report.put("totalUnits", top.totalUnits());
+        report.put("maxError", top.maxError());
+        report.put("capacity", capacity);
+        return report;
+    }
+
+    private Ring ring(Window window) {
+        synchronized (rings) {
+            return rings.get(window);
+        }
+    }
+
+    static final class Ring {
+
+        private final Window window;
+        private final int capacity;
+        private final Summary[] buckets;
+        private long currentBucket;
+
+        // Sum of every bucket except the current one; dropped whenever one of those buckets changes
+        private Merged merged;
+
+        Ring(Window window, int capacity, long now) {
+            this.window = window;
+            this.capacity = capacity;
+            this.buckets = new Summary[window.buckets + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Summary(capacity);
+            }
+            this.currentBucket = now / window.bucketMillis;
+        }
+
+        synchronized void add(Long productId, int units, long at) {
+            if (productId == null || units <= 0) {
+                return;
+            }
+            long bucket = at / window.bucketMillis;
+            if (bucket > currentBucket) {
+                advance(bucket);
+            }
+            if (bucket <= currentBucket - buckets.length) {
+                return;
+            }
+            buckets[slot(bucket)].add(productId, units);
+            if (bucket != currentBucket) {
+                merged = null;
+            }
+        }
+
+        /**
+         * Top products over the window: the merged closed buckets plus the current one. Only products in the
+         * current bucket or among the top {@code limit} of the merged buckets can make the cut.
+         */
+        synchronized Top top(int limit, long now) {
+            advance(now / window.bucketMillis);
+            if (merged == null) {
+                merged = merge();
+            }
+            Summary current = buckets[slot(currentBucket)];
+            Set<Long> candidates = new LinkedHashSet<>();
+            for (int i = 0; i < merged.ranking.length && i < limit; i++) {
+                candidates.add(merged.ranking[i]);
+            }
+            candidates.addAll(current.counters.keySet());
+
+            List<BestSeller> products = new ArrayList<>(candidates.size());
+            for (Long productId : candidates) {
+                long[] closed = merged.counts.getOrDefault(productId, new long[2]);
+                Counter counter = current.counters.get(productId);
+                long units = closed[0] + (counter == null ? 0 : counter.count);
+                long minUnits = closed[1] + (counter == null ? 0 : counter.count - counter.error);
+                products.add(new BestSeller(productId, null, units, minUnits));
+            }
+            products.sort(Comparator.comparingLong(BestSeller::units).reversed().thenComparing(BestSeller::productId));
+
+            return new Top(new ArrayList<>(products.subList(0, Math.min(limit, products.size()))),
+                    merged.units + current.total, merged.error + current.minCount());
+        }
+
+        private void advance(long bucket) {
+            if (bucket <= currentBucket) {
+                return;
+            }
+            long first = Math.max(currentBucket + 1, bucket - buckets.length + 1);
+            for (long b = first; b <= bucket; b++) {
+                buckets[slot(b)] = new Summary(capacity);
+            }
+            currentBucket = bucket;
+            merged = null;
+        }
+
+        // Estimates add up; so do the error bounds, since a product missing from a full bucket had at most its minimum
+        private Merged merge() {
+            Map<Long, long[]> counts = new HashMap<>();
+            long units = 0;
+            long error = 0;
+            for (long b = currentBucket - buckets.length + 1; b < currentBucket; b++) {
+                Summary summary = buckets[slot(b)];
+                units += summary.total;
+                error += summary.minCount();
+                for (Counter counter : summary.counters.values()) {
+                    long[] sums = counts.computeIfAbsent(counter.productId, id -> new long[2]);
+                    sums[0] += counter.count;
+                    sums[1] += counter.count - counter.error;
+                }
+            }
+            long[] ranking = counts.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> e) -> e.getValue()[0]).reversed())
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            return new Merged(counts, ranking, units, error);
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) buckets.length);
+        }
+    }
+
+    record Top(List<BestSeller> products, long totalUnits, long maxError) {
+    }
+
+    record Merged(Map<Long, long[]> counts, long[] ranking, long units, long error) {
+    }
+
+    // Space-Saving: a new product evicts the smallest counter and inherits its count as possible overestimate
+    static final class Summary {
+
+        private final int capacity;
+        final Map<Long, Counter> counters = new HashMap<>();
+        private final TreeSet<Counter> byCount = new TreeSet<>(
+                Comparator.comparingLong((Counter c) -> c.count).thenComparingLong(c -> c.productId));
+        long total;
+
+        Summary(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(long productId, long units) {
+            total += units;
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                byCount.remove(counter);
+                counter.count += units;
+            } else if (counters.size() < capacity) {
+                counter = new Counter(productId, units, 0);
+                counters.put(productId, counter);
+            } else {
+                Counter evicted = byCount.pollFirst();
+                counters.remove(evicted.productId);
+                counter = new Counter(productId, evicted.count + units, evicted.count);
+                counters.put(productId, counter);
+            }
+            byCount.add(counter);
+        }
+
+        // Upper bound on the units of any product this summary does not track
+        long minCount() {
+            return counters.size() < capacity ? 0 : byCount.first().count;
+        }
+    }
+
+    static final class Counter {
+
+        private final long productId;
+        long count;
+        final long error;
+
+        Counter(long productId, long count, long error) {
+            this.productId = productId;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ooms.service;
 
+import com.ooms.dto.CartItemView;
 import com.ooms.entity.CartItem;
 import com.ooms.entity.Product;
 import com.ooms.entity.User;
@@ -20,6 +21,10 @@ public class CartService {
         return cartRepository.findByUser(user);
     }
 
+    public List<CartItemView> getCartItemViews(User user) {
+        return cartRepository.findViewsByUserId(user.getId());
+    }
+
     public CartItem addToCart(CartItem cartItem) {
         Optional<CartItem> existing = cartRepository.findByUserAndProduct(cartItem.getUser(), cartItem.getProduct());
         if (existing.isPresent()) {
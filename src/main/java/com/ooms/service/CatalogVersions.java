@@ -0,0 +1,48 @@
+package com.ooms.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process version counters for catalog data, used to answer conditional GETs without reading the database.
+ * Every tag carries the startup epoch so tags issued before a restart never match afterwards.
+ */
+@Component
+public class CatalogVersions {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong productsVersion = new AtomicLong();
+
+    private final AtomicLong categoriesVersion = new AtomicLong();
+
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+
+    public void productChanged(Long productId) {
+        if (productId != null) {
+            productVersions.merge(productId, 1L, Long::sum);
+        }
+        productsVersion.incrementAndGet();
+    }
+
+    // Products embed their category, so a category change also changes every product representation
+    public void categoriesChanged() {
+        categoriesVersion.incrementAndGet();
+        productsVersion.incrementAndGet();
+    }
+
+    public String productsEtag() {
+        return "\"products-" + epoch + "-" + productsVersion.get() + "\"";
+    }
+
+    public String productEtag(Long productId) {
+        return "\"product-" + productId + "-" + epoch + "-" + productVersions.getOrDefault(productId, 0L) + "-" + categoriesVersion.get() + "\"";
+    }
+
+    public String categoriesEtag() {
+        return "\"categories-" + epoch + "-" + categoriesVersion.get() + "\"";
+    }
+}
@@ -0,0 +1,14 @@
+package com.ooms.service;
+
+public class CategoryDeletedEvent {
+
+    private final Long categoryId;
+
+    public CategoryDeletedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
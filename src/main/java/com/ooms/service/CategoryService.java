@@ -3,10 +3,14 @@ package com.ooms.service;
 import com.ooms.entity.Category;
 import com.ooms.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class CategoryService {
@@ -14,6 +18,19 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile CategoryTree categoryTree = CategoryTree.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildTree() {
+        categoryTree = CategoryTree.of(categoryRepository.findAllIdNameAndParentId());
+    }
+
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
@@ -22,11 +39,27 @@ public class CategoryService {
         return categoryRepository.findById(id);
     }
 
+    public CategoryTree getCategoryTree() {
+        return categoryTree;
+    }
+
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        CategoryTree tree = categoryTree;
+        return tree.contains(categoryId) ? tree.getSubtreeIds(categoryId) : Set.of(categoryId);
+    }
+
     public Category save(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        rebuildTree();
+        catalogVersions.categoriesChanged();
+        return saved;
     }
 
     public void delete(Category category) {
         categoryRepository.delete(category);
+        rebuildTree();
+        catalogVersions.categoriesChanged();
+        // Deleting a category cascades to its subcategories and products
+        eventPublisher.publishEvent(new CategoryDeletedEvent(category.getId()));
     }
 }
@@ -0,0 +1,120 @@
+package com.ooms.service;
+
+import com.ooms.dto.CategoryNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the category hierarchy with each node's descendant ids precomputed.
+ */
+public final class CategoryTree {
+
+    public static final CategoryTree EMPTY = new CategoryTree(List.of(), Map.of());
+
+    private final List<CategoryNode> roots;
+    private final Map<Long, CategoryNode> nodes;
+    private final Map<Long, Set<Long>> subtreeIds;
+
+    private CategoryTree(List<CategoryNode> roots, Map<Long, CategoryNode> nodes) {
+        this.roots = roots;
+        this.nodes = nodes;
+        Map<Long, Set<Long>> subtrees = new HashMap<>();
+        for (CategoryNode root : roots) {
+            collect(root, subtrees);
+        }
+        this.subtreeIds = Map.copyOf(subtrees);
+    }
+
+    /**
+     * Builds a tree from (id, name, parentId) rows. Rows whose parent is missing, or that sit on a cycle, become roots.
+     */
+    public static CategoryTree of(List<Object[]> rows) {
+        Map<Long, Object[]> byId = new HashMap<>();
+        Map<Long, List<Long>> childIds = new HashMap<>();
+        for (Object[] row : rows) {
+            byId.put((Long) row[0], row);
+        }
+        List<Long> rootIds = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Long parentId = (Long) row[2];
+            if (parentId == null || !byId.containsKey(parentId) || reachesItself(id, byId)) {
+                rootIds.add(id);
+            } else {
+                childIds.computeIfAbsent(parentId, k -> new ArrayList<>()).add(id);
+            }
+        }
+        Map<Long, CategoryNode> nodes = new HashMap<>();
+        List<CategoryNode> roots = new ArrayList<>();
+        for (Long rootId : rootIds) {
+            roots.add(build(rootId, byId, childIds, nodes));
+        }
+        roots.sort(Comparator.comparing(CategoryNode::getName, Comparator.nullsLast(String::compareTo)));
+        return new CategoryTree(List.copyOf(roots), Map.copyOf(nodes));
+    }
+
+    public List<CategoryNode> getRoots() {
+        return roots;
+    }
+
+    public CategoryNode getNode(Long id) {
+        return nodes.get(id);
+    }
+
+    public boolean contains(Long id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Returns the id itself plus every descendant id, or an empty set for an unknown category.
+     */
+    public Set<Long> getSubtreeIds(Long id) {
+        return subtreeIds.getOrDefault(id, Set.of());
+    }
+
+    private static boolean reachesItself(Long id, Map<Long, Object[]> byId) {
+        Set<Long> seen = new HashSet<>();
+        Long current = (Long) byId.get(id)[2];
+        while (current != null && byId.containsKey(current)) {
+            if (current.equals(id)) {
+                return true;
+            }
+            if (!seen.add(current)) {
+                return false;
+            }
+            current = (Long) byId.get(current)[2];
+        }
+        return false;
+    }
+
+    private static CategoryNode build(Long id, Map<Long, Object[]> byId, Map<Long, List<Long>> childIds, Map<Long, CategoryNode> nodes) {
+        Object[] row = byId.get(id);
+        List<CategoryNode> children = new ArrayList<>();
+        for (Long childId : childIds.getOrDefault(id, List.of())) {
+            if (!nodes.containsKey(childId)) {
+                children.add(build(childId, byId, childIds, nodes));
+            }
+        }
+        children.sort(Comparator.comparing(CategoryNode::getName, Comparator.nullsLast(String::compareTo)));
+        CategoryNode node = new CategoryNode(id, (String) row[1], (Long) row[2], List.copyOf(children));
+        nodes.put(id, node);
+        return node;
+    }
+
+    private static Set<Long> collect(CategoryNode node, Map<Long, Set<Long>> subtrees) {
+        Set<Long> ids = new HashSet<>();
+        ids.add(node.getId());
+        for (CategoryNode child : node.getChildren()) {
+            ids.addAll(collect(child, subtrees));
+        }
+        Set<Long> frozen = Set.copyOf(ids);
+        subtrees.put(node.getId(), frozen);
+        return frozen;
+    }
+}
@@ -1,39 +1,43 @@
 package com.ooms.service;
 
 import com.ooms.entity.Order;
+import com.ooms.entity.OrderStatus;
+import com.ooms.entity.OutboxMessage;
 import com.ooms.entity.User;
+import com.ooms.repository.OutboxMessageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+/**
+ * Customer notifications. Messages are written to the outbox in the caller's transaction, so they exist
+ * exactly when the order change commits; {@link OutboxDispatcher} delivers them over SMTP afterwards.
+ */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private OutboxMessageRepository outboxMessageRepository;
 
     public void sendOrderConfirmation(User user, Order order) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Order Confirmation - OOMS");
-        message.setText("Dear " + user.getName() + ",\n\nYour order #" + order.getId() + " has been placed successfully.\nTotal Amount: " + order.getTotalAmount() + "\n\nThank you for shopping with us!");
-        mailSender.send(message);
+        enqueue("ORDER_CONFIRMATION", user.getEmail(), "Order Confirmation - OOMS",
+                "Dear " + user.getName() + ",\n\nYour order #" + order.getId() + " has been placed successfully.\nTotal Amount: " + order.getTotalAmount() + "\n\nThank you for shopping with us!");
     }
 
     public void sendOrderStatusUpdate(User user, Order order) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Order Status Update - OOMS");
-        message.setText("Dear " + user.getName() + ",\n\nYour order #" + order.getId() + " status has been updated to: " + order.getStatus() + "\n\nThank you!");
-        mailSender.send(message);
+        sendOrderStatusUpdate(user.getEmail(), user.getName(), order.getId(), order.getStatus());
+    }
+
+    public void sendOrderStatusUpdate(String email, String name, Long orderId, OrderStatus status) {
+        enqueue("ORDER_STATUS_UPDATE", email, "Order Status Update - OOMS",
+                "Dear " + name + ",\n\nYour order #" + orderId + " status has been updated to: " + status + "\n\nThank you!");
     }
 
     public void sendPaymentConfirmation(User user, Order order) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Payment Confirmation - OOMS");
-        message.setText("Dear " + user.getName() + ",\n\nPayment for order #" + order.getId() + " has been received successfully.\n\nThank you!");
-        mailSender.send(message);
+        enqueue("PAYMENT_CONFIRMATION", user.getEmail(), "Payment Confirmation - OOMS",
+                "Dear " + user.getName() + ",\n\nPayment for order #" + order.getId() + " has been received successfully.\n\nThank you!");
+    }
+
+    private void enqueue(String type, String recipient, String subject, String body) {
+        outboxMessageRepository.save(new OutboxMessage(type, recipient, subject, body));
     }
 }
@@ -0,0 +1,216 @@
+package com.ooms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ooms.entity.IdempotencyRecord;
+import com.ooms.repository.IdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Replays the stored response when a client retries a request with the same {@code Idempotency-Key}.
+ * Completed responses are kept in a bounded in-memory LRU backed by the idempotency_keys table; a duplicate
+ * that arrives while the first request is still running waits for it instead of executing again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Value("${ooms.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${ooms.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LinkedHashMap<String, IdempotencyRecord> recent = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the action once per (scope, user, key). The request description goes into a fingerprint so a key
+     * reused for a different request is rejected instead of replaying an unrelated response.
+     * <p>
+     * The action is handed a recorder that it must call with its response inside its own transaction, so the
+     * stored response commits or rolls back together with the work it describes.
+     *
+     * @param key the client's Idempotency-Key, or null to run the action unconditionally
+     */
+    public <T> ResponseEntity<T> execute(String scope, Long userId, String key, String request, Class<T> type,
+                                         Function<Consumer<T>, T> action) {
+        if (key == null) {
+            return ResponseEntity.ok(action.apply(body -> { }));
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + userId + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        IdempotencyRecord stored = lookup(id);
+        if (stored != null) {
+            return replay(stored, fingerprint, type);
+        }
+        CompletableFuture<IdempotencyRecord> running = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> first = inFlight.putIfAbsent(id, running);
+        if (first != null) {
+            return replay(await(first), fingerprint, type);
+        }
+        try {
+            // The previous owner may have finished between the lookup and taking the in-flight slot
+            stored = lookup(id);
+            if (stored != null) {
+                running.complete(stored);
+                return replay(stored, fingerprint, type);
+            }
+            // The last recording wins: a group-commit batch that rolls back reruns the action in its own transaction
+            AtomicReference<IdempotencyRecord> recorded = new AtomicReference<>();
+            T body;
+            try {
+                body = action.apply(response -> recorded.set(record(id, fingerprint, response)));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance recorded the same key first, and this transaction rolled back with ours
+                stored = lookup(id);
+                if (stored == null) {
+                    throw e;
+                }
+                running.complete(stored);
+                return replay(stored, fingerprint, type);
+            }
+            IdempotencyRecord record = recorded.get();
+            if (record == null) {
+                throw new IllegalStateException("Idempotent action for " + scope + " did not record its response");
+            }
+            synchronized (recent) {
+                recent.put(id, record);
+            }
+            running.complete(record);
+            return ResponseEntity.ok(body);
+        } catch (Throwable e) {
+            // Failed requests are not recorded, so the client can retry; duplicates already waiting see the same error
+            running.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, running);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ooms.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            recent.values().removeIf(record -> record.getExpiresAt().isBefore(now));
+        }
+        idempotencyRecordRepository.deleteExpired(now);
+    }
+
+    private IdempotencyRecord lookup(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            IdempotencyRecord record = recent.get(id);
+            if (record != null) {
+                if (record.getExpiresAt().isAfter(now)) {
+                    return record;
+                }
+                recent.remove(id);
+            }
+        }
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id)
+                .filter(found -> found.getExpiresAt().isAfter(now))
+                .orElse(null);
+        if (record != null) {
+            synchronized (recent) {
+                recent.put(id, record);
+            }
+        }
+        return record;
+    }
+
+    private IdempotencyRecord record(String id, String fingerprint, Object body) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Idempotent responses must be recorded inside the action's transaction");
+        }
+        IdempotencyRecord record = new IdempotencyRecord(id, fingerprint, toJson(body), LocalDateTime.now().plusHours(ttlHours));
+        // persist rather than save: a key recorded concurrently must fail this transaction, not be overwritten
+        entityManager.persist(record);
+        return record;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String fingerprint, Class<T> type) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        try {
+            return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(objectMapper.readValue(record.getResponseBody(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    private static IdempotencyRecord await(CompletableFuture<IdempotencyRecord> first) {
+        try {
+            return first.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable", e);
+        }
+    }
+
+    private static String fingerprint(String request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.ooms.service;
+
+import com.ooms.dto.StockReservation;
+import com.ooms.exception.InsufficientStockException;
+import com.ooms.repository.OrderRepository;
+import com.ooms.repository.ProductRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-product available counts kept in atomic counters, so checkouts reserve stock with a CAS instead of
+ * queueing on the product row lock. Confirmed orders are written to {@code products.stock} in periodic batches;
+ * until then their {@code stockApplied} flag stays false, which is what startup recovery replays from order_items.
+ * The counters are authoritative only within one application instance.
+ */
+@Component
+public class InventoryLedger implements SmartInitializingSingleton {
+
+    @Value("${ooms.inventory.mode:direct}")
+    private String mode;
+
+    @Value("${ooms.inventory.hold-seconds:600}")
+    private long holdSeconds;
+
+    @Value("${ooms.inventory.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Hold> reservationsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ConfirmedOrder> unflushed = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean ready = false;
+
+    // Runs before the web server starts, so no checkout sees products.stock without the previous run's deductions
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+    }
+
+    public void recover() {
+        // Orders confirmed by a previous run whose deductions never reached products.stock
+        List<Long> orderIds = orderRepository.findIdsWithStockNotApplied();
+        for (int from = 0; from < orderIds.size(); from += flushBatchSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + flushBatchSize, orderIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Integer> deductions = new TreeMap<>();
+                for (Object[] row : orderRepository.sumQuantityByProductForOrders(chunk)) {
+                    deductions.put((Long) row[0], ((Number) row[1]).intValue());
+                }
+                applyDeductions(chunk, deductions);
+            });
+        }
+        if (!orderIds.isEmpty()) {
+            eventPublisher.publishEvent(new StockFlushedEvent(null));
+        }
+
+        if ("ledger".equalsIgnoreCase(mode)) {
+            for (Object[] row : productRepository.findAllIdAndStock()) {
+                counters.put((Long) row[0], new Counter((Integer) row[1]));
+            }
+            ready = true;
+        }
+    }
+
+    public boolean isEnabled() {
+        return ready;
+    }
+
+    /**
+     * Reserves the quantities for {@link #holdSeconds} seconds, replacing the user's previous reservation.
+     */
+    public StockReservation reserve(Long userId, Map<Long, Integer> quantities) {
+        requireEnabled();
+        Hold hold = take(userId, quantities);
+        Hold previous = reservationsByUser.put(userId, hold);
+        if (previous != null && previous.state.compareAndSet(HoldState.ACTIVE, HoldState.DONE)) {
+            release(previous);
+        }
+        return hold.toReservation();
+    }
+
+    public void cancel(Long userId, String reservationId) {
+        Hold hold = claim(userId, reservationId);
+        release(hold);
+    }
+
+    /**
+     * Takes a hold for the duration of one checkout; pair with {@link #completeWithTransaction}. A reservation the
+     * user made ahead is released first, since this checkout replaces it and would otherwise hold the stock twice.
+     */
+    public Hold holdForCheckout(Long userId, Map<Long, Integer> quantities) {
+        requireEnabled();
+        Hold reserved = reservationsByUser.get(userId);
+        if (reserved != null && reserved.state.compareAndSet(HoldState.ACTIVE, HoldState.DONE)) {
+            release(reserved);
+        }
+        Hold hold = take(userId, quantities);
+        hold.state.set(HoldState.CLAIMED);
+        return hold;
+    }
+
+    /**
+     * Claims a reservation made ahead of checkout so it can no longer expire or be cancelled underneath it.
+     */
+    public Hold claim(Long userId, String reservationId) {
+        Hold hold = holds.get(reservationId);
+        if (hold == null || !hold.userId.equals(userId) || !hold.state.compareAndSet(HoldState.ACTIVE, HoldState.CLAIMED)) {
+            throw new IllegalArgumentException("Reservation not found or expired");
+        }
+        return hold;
+    }
+
+    public void unclaim(Hold hold) {
+        hold.state.compareAndSet(HoldState.CLAIMED, HoldState.ACTIVE);
+    }
+
+    /**
+     * On commit the hold becomes a pending deduction for the order; on rollback a reservation made ahead
+     * is handed back to its owner and a checkout hold is released.
+     */
+    public void completeWithTransaction(Hold hold, boolean reservedAhead, LongSupplier orderId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(hold, orderId.getAsLong());
+                } else if (reservedAhead) {
+                    hold.state.set(HoldState.ACTIVE);
+                } else {
+                    release(hold);
+                }
+            }
+        });
+    }
+
+    // Admin edits set an absolute stock value; holds and unflushed orders still count against it
+    public void stockChanged(Long productId, int stock) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.available.set(stock - counter.held.get() - counter.unflushed.get());
+        }
+    }
+
+    public void productRemoved(Long productId) {
+        counters.remove(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${ooms.inventory.expiry-interval-ms:5000}")
+    public void releaseExpired() {
+        Instant now = Instant.now();
+        for (Hold hold : holds.values()) {
+            if (hold.expiresAt.isBefore(now) && hold.state.compareAndSet(HoldState.ACTIVE, HoldState.DONE)) {
+                release(hold);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ooms.inventory.flush-interval-ms:1000}")
+    public void flush() {
+        List<ConfirmedOrder> batch = new ArrayList<>(flushBatchSize);
+        do {
+            batch.clear();
+            ConfirmedOrder next;
+            while (batch.size() < flushBatchSize && (next = unflushed.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Long> orderIds = new ArrayList<>(batch.size());
+            Map<Long, Integer> deductions = new TreeMap<>();
+            for (ConfirmedOrder order : batch) {
+                orderIds.add(order.orderId);
+                order.quantities.forEach((productId, quantity) -> deductions.merge(productId, quantity, Integer::sum));
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyDeductions(orderIds, deductions));
+            } catch (DataAccessException e) {
+                // Retried on the next run; the orders stay flagged, so a crash before then is covered by recovery
+                unflushed.addAll(batch);
+                return;
+            }
+            deductions.forEach((productId, quantity) -> {
+                Counter counter = counters.get(productId);
+                if (counter != null) {
+                    counter.unflushed.addAndGet(-quantity);
+                }
+            });
+            eventPublisher.publishEvent(new StockFlushedEvent(deductions.keySet()));
+        } while (batch.size() == flushBatchSize);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", ready);
+        stats.put("products", counters.size());
+        stats.put("holds", holds.size());
+        stats.put("unflushedOrders", unflushed.size());
+        return stats;
+    }
+
+    private void applyDeductions(List<Long> orderIds, Map<Long, Integer> deductions) {
+        if (!deductions.isEmpty()) {
+            productRepository.deductStock(deductions);
+        }
+        orderRepository.markStockApplied(orderIds);
+    }
+
+    // All-or-nothing: every product that cannot cover its quantity is reported, and partial takes are undone
+    private Hold take(Long userId, Map<Long, Integer> quantities) {
+        Map<Long, Integer> taken = new TreeMap<>();
+        List<Long> failed = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            Counter counter = counter(line.getKey());
+            if (counter != null && counter.tryTake(line.getValue())) {
+                taken.put(line.getKey(), line.getValue());
+            } else {
+                failed.add(line.getKey());
+            }
+        }
+        if (!failed.isEmpty()) {
+            giveBack(taken);
+            throw new InsufficientStockException(failed);
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, Collections.unmodifiableMap(taken), Instant.now().plusSeconds(holdSeconds));
+        holds.put(hold.id, hold);
+        return hold;
+    }
+
+    private void confirm(Hold hold, long orderId) {
+        holds.remove(hold.id);
+        reservationsByUser.remove(hold.userId, hold);
+        hold.state.set(HoldState.DONE);
+        hold.quantities.forEach((productId, quantity) -> {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                counter.held.addAndGet(-quantity);
+                counter.unflushed.addAndGet(quantity);
+            }
+        });
+        unflushed.add(new ConfirmedOrder(orderId, hold.quantities));
+    }
+
+    private void release(Hold hold) {
+        if (holds.remove(hold.id, hold)) {
+            reservationsByUser.remove(hold.userId, hold);
+            hold.state.set(HoldState.DONE);
+            giveBack(hold.quantities);
+        }
+    }
+
+    private void giveBack(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                counter.held.addAndGet(-quantity);
+                counter.available.addAndGet(quantity);
+            }
+        });
+    }
+
+    // Products created after startup are loaded on first use; nothing can be unflushed for them yet
+    private Counter counter(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        return productRepository.findStockById(productId)
+                .map(stock -> counters.computeIfAbsent(productId, id -> new Counter(stock)))
+                .orElse(null);
+    }
+
+    private void requireEnabled() {
+        if (!ready) {
+            throw new IllegalStateException("Inventory reservations are not enabled");
+        }
+    }
+
+    private enum HoldState { ACTIVE, CLAIMED, DONE }
+
+    public static final class Hold {
+        private final String id;
+        private final Long userId;
+        private final Map<Long, Integer> quantities;
+        private final Instant expiresAt;
+        private final AtomicReference<HoldState> state = new AtomicReference<>(HoldState.ACTIVE);
+
+        private Hold(String id, Long userId, Map<Long, Integer> quantities, Instant expiresAt) {
+            this.id = id;
+            this.userId = userId;
+            this.quantities = quantities;
+            this.expiresAt = expiresAt;
+        }
+
+        public Map<Long, Integer> getQuantities() {
+            return quantities;
+        }
+
+        private StockReservation toReservation() {
+            return new StockReservation(id, expiresAt, quantities);
+        }
+    }
+
+    private static final class Counter {
+        private final AtomicInteger available;
+        private final AtomicInteger held = new AtomicInteger();
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        private Counter(int stock) {
+            this.available = new AtomicInteger(stock);
+        }
+
+        private boolean tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    held.addAndGet(quantity);
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static final class ConfirmedOrder {
+        private final long orderId;
+        private final Map<Long, Integer> quantities;
+
+        private ConfirmedOrder(long orderId, Map<Long, Integer> quantities) {
+            this.orderId = orderId;
+            this.quantities = quantities;
+        }
+    }
+}
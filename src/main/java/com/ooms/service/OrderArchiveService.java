@@ -0,0 +1,102 @@
+package com.ooms.service;
+
+import com.ooms.entity.OrderStatus;
+import com.ooms.repository.OrderArchiveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves finished orders older than {@code ooms.archive.min-age-days} out of the hot tables. Every chunk is its
+ * own short transaction that locks only the rows it moves, so the job can run under live traffic; a chunk either
+ * moves completely or not at all, which makes an interrupted run safe to simply start again.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Set<OrderStatus> ARCHIVABLE = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    @Value("${ooms.archive.min-age-days:180}")
+    private int minAgeDays;
+
+    @Value("${ooms.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ooms.archive.pause-ms:50}")
+    private long pauseMillis;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${ooms.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        archive();
+    }
+
+    public Map<String, Object> archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Order archival is already running");
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+            long startedAt = System.nanoTime();
+            long afterId = 0;
+            long archived = 0;
+            long skipped = 0;
+            int chunks = 0;
+            while (true) {
+                List<Long> candidates = orderArchiveRepository.findArchivableIds(ARCHIVABLE, cutoff, afterId, chunkSize);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                afterId = candidates.get(candidates.size() - 1);
+                Integer moved = transactionTemplate.execute(status -> {
+                    Map<Long, OrderStatus> locked = orderArchiveRepository.lockArchivable(candidates, ARCHIVABLE);
+                    if (!locked.isEmpty()) {
+                        orderArchiveRepository.moveToArchive(locked.keySet());
+                        orderStatusCounters.removed(locked.values());
+                    }
+                    return locked.size();
+                });
+                archived += moved;
+                skipped += candidates.size() - moved;
+                chunks++;
+                if (pauseMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(pauseMillis);
+                }
+            }
+
+            Map<String, Object> report = new HashMap<>();
+            report.put("cutoff", cutoff);
+            report.put("archived", archived);
+            report.put("skipped", skipped);
+            report.put("chunks", chunks);
+            report.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order archival was interrupted");
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ooms.service;
+
+import com.ooms.exception.OrderQueueFullException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Group commit for order placement: callers park on a future while a single writer thread runs every queued
+ * order in one transaction, so a burst of checkouts shares one commit. A full queue rejects immediately
+ * with {@link OrderQueueFullException} instead of letting request threads pile up.
+ */
+@Component
+public class OrderIngestionQueue {
+
+    @Value("${ooms.orders.ingestion:direct}")
+    private String ingestion;
+
+    @Value("${ooms.orders.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${ooms.orders.batch-size:100}")
+    private int batchSize;
+
+    @Value("${ooms.orders.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${ooms.orders.submit-timeout-seconds:30}")
+    private long submitTimeoutSeconds;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // The shared template plus a timeout, so work a caller is still waiting on cannot run unbounded
+    private TransactionTemplate writerTransactions;
+
+    private BlockingQueue<Submission<?>> queue;
+    private Thread writer;
+    private volatile boolean running = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!"group-commit".equalsIgnoreCase(ingestion)) {
+            return;
+        }
+        writerTransactions = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        writerTransactions.setTimeout((int) submitTimeoutSeconds);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "order-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queues the work and blocks until the batch containing it has committed (or the work failed on its own).
+     * A caller still waiting after {@code submit-timeout-seconds} gets the same 503 as a full queue, but only if
+     * the writer has not started its work; once started, the caller waits for the real outcome, which the
+     * writer's transaction timeout bounds. The work gets the transaction status so it can abort the batch.
+     */
+    public <T> T submit(Function<TransactionStatus, T> work) {
+        Submission<T> submission = new Submission<>(work);
+        if (!running || !queue.offer(submission)) {
+            throw new OrderQueueFullException(retryAfterSeconds);
+        }
+        try {
+            submission.result.get(submitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (submission.abandon()) {
+                queue.remove(submission);
+                throw new OrderQueueFullException(retryAfterSeconds);
+            }
+            // Already running: a 503 now could invite a retry of an order that is about to commit
+        } catch (ExecutionException e) {
+            // Reported below from the completed future
+        }
+        return outcome(submission.result);
+    }
+
+    private static <T> T outcome(CompletableFuture<T> done) {
+        try {
+            return done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order placement failed", e.getCause());
+        }
+    }
+
+    // Stop taking orders and let the writer finish what is already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void drain() {
+        try {
+            drainLoop();
+        } finally {
+            // However the writer ends, nobody may be left waiting on it
+            running = false;
+            Submission<?> abandoned;
+            while ((abandoned = queue.poll()) != null) {
+                abandoned.result.completeExceptionally(new OrderQueueFullException(retryAfterSeconds));
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Submission<?>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Throwable e) {
+                // Errors too: the writer must outlive a bad batch, or every later caller would wait on it
+                batch.forEach(submission -> submission.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Submission<?>> batch) {
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        try {
+            writerTransactions.executeWithoutResult(status -> {
+                for (Submission<?> submission : batch) {
+                    completions.add(submission.run(status));
+                }
+            });
+        } catch (RuntimeException e) {
+            // One order broke the shared transaction; commit each on its own so the rest still go through
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            for (Submission<?> submission : batch) {
+                try {
+                    Runnable completion = writerTransactions.execute(submission::run);
+                    completion.run();
+                } catch (Throwable single) {
+                    submission.result.completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    private static final class Submission<T> {
+        private static final int QUEUED = 0;
+        private static final int STARTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final Function<TransactionStatus, T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Submission(Function<TransactionStatus, T> work) {
+            this.work = work;
+        }
+
+        // Succeeds only while the writer has not started the work, which it then never will
+        private boolean abandon() {
+            if (state.compareAndSet(QUEUED, ABANDONED)) {
+                result.completeExceptionally(new IllegalStateException("Order placement timed out before it started"));
+                return true;
+            }
+            return false;
+        }
+
+        // Runs the work and returns how to complete the caller once the transaction has committed.
+        // Failures that leave the transaction usable only fail this caller; anything else aborts the batch.
+        private Runnable run(TransactionStatus status) {
+            // A retry of a failed batch finds the submission already STARTED and runs it again
+            if (!state.compareAndSet(QUEUED, STARTED) && state.get() != STARTED) {
+                return () -> { };
+            }
+            try {
+                T value = work.apply(status);
+                return () -> result.complete(value);
+            } catch (DataAccessException | PersistenceException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (status.isRollbackOnly()) {
+                    throw e;
+                }
+                return () -> result.completeExceptionally(e);
+            }
+        }
+    }
+}
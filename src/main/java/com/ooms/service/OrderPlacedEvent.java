@@ -0,0 +1,28 @@
+package com.ooms.service;
+
+import java.util.Map;
+
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+    private final Long userId;
+    private final Map<Long, Integer> quantities;
+
+    public OrderPlacedEvent(Long orderId, Long userId, Map<Long, Integer> quantities) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.quantities = quantities;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+}
@@ -1,60 +1,398 @@
 package com.ooms.service;
 
+import com.ooms.dto.CursorPage;
+import com.ooms.dto.OrderCursor;
+import com.ooms.dto.OrderExportRow;
+import com.ooms.dto.OrderHistoryEntry;
+import com.ooms.dto.OrderHistoryItem;
+import com.ooms.dto.OrderSummary;
+import com.ooms.dto.PaymentInitiation;
+import com.ooms.dto.StatusUpdateResult;
+import com.ooms.dto.StockReservation;
+import com.ooms.entity.CartItem;
 import com.ooms.entity.Order;
+import com.ooms.entity.OrderItem;
 import com.ooms.entity.OrderStatus;
+import com.ooms.entity.PaymentMethod;
+import com.ooms.entity.PaymentStatus;
+import com.ooms.entity.Product;
 import com.ooms.entity.User;
+import com.ooms.exception.InsufficientStockException;
+import com.ooms.repository.CartRepository;
+import com.ooms.repository.OrderArchiveRepository;
+import com.ooms.repository.OrderExportRepository;
 import com.ooms.repository.OrderRepository;
+import com.ooms.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int BULK_STATUS_CHUNK = 1000;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private SalesCubeService salesCubeService;
+
+    @Autowired
+    private OrderIngestionQueue orderIngestionQueue;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderExportRepository orderExportRepository;
+
     public List<Order> getOrdersByUser(User user) {
         return orderRepository.findByUser(user);
     }
 
-    public Order placeOrder(Order order) {
-        // TODO: Implement full order placement logic with cart, stock update, etc.
-        return orderRepository.save(order);
+    public List<OrderSummary> getOrderSummariesByUser(User user, boolean includeArchived) {
+        List<OrderSummary> orders = orderRepository.findSummariesByUserId(user.getId());
+        return includeArchived ? newestFirst(orders, orderArchiveRepository.findSummariesByUserId(user.getId())) : orders;
+    }
+
+    /**
+     * One page of the user's orders, newest first, with their items loaded by a single query for the whole page.
+     */
+    public CursorPage<OrderHistoryEntry> getOrderHistory(User user, String after, int size, boolean includeArchived) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        OrderCursor cursor = after == null ? null : OrderCursor.decode(after);
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<OrderHistoryEntry> orders = cursor == null
+                ? orderRepository.findHistory(user.getId(), limit)
+                : orderRepository.findHistoryBefore(user.getId(), cursor.getCreatedAt(), cursor.getId(), limit);
+        Set<Long> archivedIds = Set.of();
+        if (includeArchived) {
+            // Both sources share the keyset, so merging their first size + 1 rows gives the right page
+            List<OrderHistoryEntry> archived = orderArchiveRepository.findHistory(user.getId(), cursor, size + 1);
+            archivedIds = archived.stream().map(OrderHistoryEntry::id).collect(Collectors.toSet());
+            List<OrderHistoryEntry> merged = new ArrayList<>(orders);
+            merged.addAll(archived);
+            merged.sort(Comparator.comparing(OrderHistoryEntry::createdAt).thenComparing(OrderHistoryEntry::id).reversed());
+            orders = merged.size() > size + 1 ? merged.subList(0, size + 1) : merged;
+        }
+        boolean hasNext = orders.size() > size;
+        if (hasNext) {
+            orders = orders.subList(0, size);
+        }
+
+        List<Long> hotIds = new ArrayList<>();
+        List<Long> coldIds = new ArrayList<>();
+        for (OrderHistoryEntry order : orders) {
+            (archivedIds.contains(order.id()) ? coldIds : hotIds).add(order.id());
+        }
+        List<OrderHistoryItem> items = new ArrayList<>();
+        if (!hotIds.isEmpty()) {
+            items.addAll(orderRepository.findHistoryItems(hotIds));
+        }
+        if (!coldIds.isEmpty()) {
+            items.addAll(orderArchiveRepository.findHistoryItems(coldIds));
+        }
+        Map<Long, List<OrderHistoryItem>> itemsByOrder = new HashMap<>();
+        for (OrderHistoryItem item : items) {
+            itemsByOrder.computeIfAbsent(item.orderId(), id -> new ArrayList<>()).add(item);
+        }
+        List<OrderHistoryEntry> page = new ArrayList<>(orders.size());
+        for (OrderHistoryEntry order : orders) {
+            page.add(order.withItems(itemsByOrder.getOrDefault(order.id(), List.of())));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderHistoryEntry last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.createdAt(), last.id()).encode();
+        }
+        return new CursorPage<>(page, page.size(), hasNext, nextCursor);
+    }
+
+    public StockReservation reserveCart(User user) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CartItem line : cartRepository.findWithProductByUser(user)) {
+            quantities.merge(line.getProduct().getId(), line.getQuantity(), Integer::sum);
+        }
+        if (quantities.isEmpty()) {
+            throw new IllegalStateException("Cart is empty");
+        }
+        return inventoryLedger.reserve(user.getId(), quantities);
+    }
+
+    public void cancelReservation(User user, String reservationId) {
+        inventoryLedger.cancel(user.getId(), reservationId);
+    }
+
+    public Map<String, Object> getInventoryStats() {
+        return inventoryLedger.getStats();
+    }
+
+    /**
+     * @param onPlaced runs inside the order's transaction once the order is saved, e.g. to record the response
+     *                 for an Idempotency-Key so it cannot commit without the order or the order without it
+     */
+    public Order placeOrder(User user, String reservationId, Consumer<Order> onPlaced) {
+        if (orderIngestionQueue.isEnabled()) {
+            return orderIngestionQueue.submit(status -> createOrder(user, reservationId, onPlaced, status));
+        }
+        return transactionTemplate.execute(status -> createOrder(user, reservationId, onPlaced, status));
+    }
+
+    /**
+     * Turns the user's cart into an order inside the caller's transaction. Business failures before the order is
+     * saved (empty cart, missing stock, stale reservation) leave nothing behind, so a group-commit batch can skip
+     * the order and go on. Anything that fails after the save marks the transaction rollback-only, so the batch
+     * aborts instead of committing an order its caller was told had failed.
+     */
+    private Order createOrder(User user, String reservationId, Consumer<Order> onPlaced, TransactionStatus status) {
+        List<CartItem> cart = cartRepository.findWithProductByUser(user);
+        if (cart.isEmpty()) {
+            throw new IllegalStateException("Cart is empty");
+        }
+
+        // Ordered by product id so concurrent checkouts always lock product rows in the same order
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (CartItem line : cart) {
+            Product product = line.getProduct();
+            quantities.merge(product.getId(), line.getQuantity(), Integer::sum);
+            products.put(product.getId(), product);
+        }
+
+        Order order = new Order(user, 0.0, OrderStatus.PLACED, PaymentStatus.PENDING);
+        if (reservationId != null || inventoryLedger.isEnabled()) {
+            // Stock comes out of the in-memory ledger and reaches the products table on its next flush
+            InventoryLedger.Hold hold;
+            if (reservationId != null) {
+                hold = inventoryLedger.claim(user.getId(), reservationId);
+                if (!hold.getQuantities().equals(quantities)) {
+                    inventoryLedger.unclaim(hold);
+                    throw new IllegalStateException("Cart changed since the reservation was made");
+                }
+                inventoryLedger.completeWithTransaction(hold, true, order::getId);
+            } else {
+                hold = inventoryLedger.holdForCheckout(user.getId(), quantities);
+                inventoryLedger.completeWithTransaction(hold, false, order::getId);
+            }
+            order.setStockApplied(false);
+        } else {
+            List<Long> outOfStock = productRepository.decrementStock(quantities);
+            if (!outOfStock.isEmpty()) {
+                // Put back the lines that did succeed rather than relying on the rollback
+                Map<Long, Integer> restore = new TreeMap<>();
+                quantities.forEach((productId, quantity) -> {
+                    if (!outOfStock.contains(productId)) {
+                        restore.put(productId, -quantity);
+                    }
+                });
+                if (!restore.isEmpty()) {
+                    productRepository.deductStock(restore);
+                }
+                throw new InsufficientStockException(outOfStock);
+            }
+        }
+
+        Set<OrderItem> items = new HashSet<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            items.add(new OrderItem(order, product, line.getValue(), product.getPrice()));
+            total = total.add(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(line.getValue())));
+        }
+        order.setOrderItems(items);
+        order.setTotalAmount(total.doubleValue());
+        Order saved = orderRepository.save(order);
+        try {
+            cartRepository.deleteByUser(user);
+            onPlaced.accept(saved);
+            revenueRollupService.orderPlaced(saved);
+            orderStatusCounters.placed();
+            emailService.sendOrderConfirmation(user, saved);
+            eventPublisher.publishEvent(new OrderPlacedEvent(saved.getId(), user.getId(), quantities));
+        } catch (RuntimeException e) {
+            status.setRollbackOnly();
+            throw e;
+        }
+        return saved;
+    }
+
+    public PaymentInitiation initiatePayment(User user, Long orderId, PaymentMethod method, Consumer<PaymentInitiation> onInitiated) {
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findByIdAndUserId(orderId, user.getId()).orElseThrow(() -> new RuntimeException("Order not found"));
+            PaymentInitiation initiation = new PaymentInitiation(order.getId(), method, paymentService.initiatePayment(order, method));
+            onInitiated.accept(initiation);
+            return initiation;
+        });
     }
 
     public Order updateOrderStatus(Long id, String status) {
-        Order order = orderRepository.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-        return orderRepository.save(order);
+        OrderStatus next = OrderStatus.valueOf(status.toUpperCase());
+        return transactionTemplate.execute(tx -> {
+            Order order = orderRepository.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
+            OrderStatus current = order.getStatus();
+            if (!current.canTransitionTo(next)) {
+                throw new IllegalStateException("Order " + id + " cannot move from " + current + " to " + next);
+            }
+            order.setStatus(next);
+            // @Version turns a concurrent change between the read and this save into an optimistic lock failure
+            Order saved = orderRepository.save(order);
+            if (next == OrderStatus.CANCELLED) {
+                revenueRollupService.ordersReversed(List.of(id));
+            }
+            orderStatusCounters.moved(current, next, 1);
+            emailService.sendOrderStatusUpdate(saved.getUser(), saved);
+            return saved;
+        });
+    }
+
+    /**
+     * Moves every listed order that is in an allowed source status to the target with one UPDATE per chunk.
+     * Orders in any other status are reported as conflicts and left untouched.
+     */
+    public List<StatusUpdateResult> bulkUpdateStatus(List<Long> orderIds, OrderStatus target) {
+        Set<OrderStatus> sources = OrderStatus.sourcesOf(target);
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<Long, StatusUpdateResult> results = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BULK_STATUS_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_STATUS_CHUNK, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> eligible = new ArrayList<>();
+                Map<OrderStatus, Long> movedFrom = new EnumMap<>(OrderStatus.class);
+                for (Object[] row : orderRepository.lockStatuses(chunk)) {
+                    Long id = (Long) row[0];
+                    OrderStatus current = (OrderStatus) row[1];
+                    if (sources.contains(current)) {
+                        eligible.add(id);
+                        movedFrom.merge(current, 1L, Long::sum);
+                        results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.UPDATED, target));
+                    } else {
+                        results.put(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.CONFLICT, current));
+                    }
+                }
+                if (!eligible.isEmpty()) {
+                    orderRepository.updateStatus(eligible, sources, target);
+                    if (target == OrderStatus.CANCELLED) {
+                        revenueRollupService.ordersReversed(eligible);
+                    }
+                    movedFrom.forEach((source, count) -> orderStatusCounters.moved(source, target, count));
+                    for (Object[] row : orderRepository.findCustomerContacts(eligible)) {
+                        emailService.sendOrderStatusUpdate((String) row[1], (String) row[2], (Long) row[0], target);
+                    }
+                }
+            });
+        }
+        List<StatusUpdateResult> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ordered.add(results.getOrDefault(id, new StatusUpdateResult(id, StatusUpdateResult.Outcome.NOT_FOUND, null)));
+        }
+        return ordered;
     }
 
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
-    public Map<String, Object> getRevenueReport() {
-        Map<String, Object> report = new HashMap<>();
-        // TODO: Implement actual revenue calculation
-        report.put("total", 0.0);
-        return report;
+    public List<OrderSummary> getAllOrderSummaries(boolean includeArchived) {
+        List<OrderSummary> orders = orderRepository.findAllSummaries();
+        return includeArchived ? newestFirst(orders, orderArchiveRepository.findAllSummaries()) : orders;
+    }
+
+    /**
+     * Streams matching orders to the consumer through forward-only cursors, archived ones first when asked for,
+     * each table in id order. Rows never enter a persistence context, so memory stays flat however many there are.
+     *
+     * @param statuses allowed statuses, or empty for all
+     * @param from     inclusive lower bound on the order date, or null
+     * @param to       inclusive upper bound on the order date, or null
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(Set<OrderStatus> statuses, LocalDate from, LocalDate to, boolean includeArchived,
+                             Consumer<OrderExportRow> consumer) {
+        orderExportRepository.export(statuses.isEmpty() ? null : statuses, from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(), includeArchived, consumer);
+    }
+
+    private static List<OrderSummary> newestFirst(List<OrderSummary> hot, List<OrderSummary> archived) {
+        List<OrderSummary> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(OrderSummary::createdAt).thenComparing(OrderSummary::id).reversed());
+        return merged;
+    }
+
+    public Map<String, Object> getRevenueReport(LocalDate from, LocalDate to) {
+        return revenueRollupService.getRevenueReport(from, to);
+    }
+
+    public Map<String, Object> rebuildRevenueRollups(LocalDate from, LocalDate to) {
+        return revenueRollupService.rebuild(from, to);
     }
 
-    public Map<String, Object> getSalesReport() {
-        Map<String, Object> report = new HashMap<>();
-        // TODO: Implement actual sales report
-        report.put("totalOrders", orderRepository.count());
-        return report;
+    public Map<String, Object> getSalesReport(LocalDate from, LocalDate to, SalesCubeService.Granularity granularity) {
+        return salesCubeService.report(from, to, granularity);
     }
 
     public Map<String, Object> getDashboardStats() {
+        Map<OrderStatus, Long> statusCounts = orderStatusCounters.snapshot();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("totalRevenue", 0.0); // TODO: Calculate actual revenue
+        stats.put("totalOrders", statusCounts.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("ordersByStatus", statusCounts);
+        stats.put("totalRevenue", revenueRollupService.getTotalRevenue());
         return stats;
     }
 }
@@ -0,0 +1,126 @@
+package com.ooms.service;
+
+import com.ooms.entity.OrderStatus;
+import com.ooms.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live count of orders in each status, seeded once from a single GROUP BY and then moved by every committed
+ * placement, status change and archival. Writers only touch striped {@link LongAdder} cells, so busy checkouts
+ * never contend, and dashboard reads cost a handful of additions instead of a table scan.
+ */
+@Component
+public class OrderStatusCounters {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Changes committed since startup
+    private final LongAdder[] deltas = new LongAdder[STATUSES.length];
+
+    // Seeded counts, less the deltas already applied when the seed query started
+    private volatile long[] base;
+
+    public OrderStatusCounters() {
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Loads the counts from the orders table. A change that commits while the query runs may be counted twice
+     * or missed; calling this again corrects it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long[] applied = sums();
+        long[] seeded = new long[STATUSES.length];
+        for (Object[] row : orderRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                seeded[((OrderStatus) row[0]).ordinal()] = (Long) row[1];
+            }
+        }
+        for (int i = 0; i < seeded.length; i++) {
+            seeded[i] -= applied[i];
+        }
+        base = seeded;
+    }
+
+    public void placed() {
+        long[] change = new long[STATUSES.length];
+        change[OrderStatus.PLACED.ordinal()] = 1;
+        applyAfterCommit(change);
+    }
+
+    public void moved(OrderStatus from, OrderStatus to, long count) {
+        long[] change = new long[STATUSES.length];
+        change[from.ordinal()] -= count;
+        change[to.ordinal()] += count;
+        applyAfterCommit(change);
+    }
+
+    public void removed(Collection<OrderStatus> statuses) {
+        long[] change = new long[STATUSES.length];
+        for (OrderStatus status : statuses) {
+            change[status.ordinal()]--;
+        }
+        applyAfterCommit(change);
+    }
+
+    // Ordered by status declaration; seeds on first use if a request beats the startup seed
+    public Map<OrderStatus, Long> snapshot() {
+        long[] seeded = base;
+        if (seeded == null) {
+            seed();
+            seeded = base;
+        }
+        long[] applied = sums();
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            counts.put(status, seeded[status.ordinal()] + applied[status.ordinal()]);
+        }
+        return counts;
+    }
+
+    private long[] sums() {
+        long[] sums = new long[STATUSES.length];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = deltas[i].sum();
+        }
+        return sums;
+    }
+
+    // Rolled-back changes never reach the counters
+    private void applyAfterCommit(long[] change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(long[] change) {
+        for (int i = 0; i < change.length; i++) {
+            if (change[i] != 0) {
+                deltas[i].add(change[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ooms.service;
+
+import com.ooms.entity.OutboxMessage;
+import com.ooms.entity.OutboxStatus;
+import com.ooms.repository.OutboxMessageRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox in batches. Each batch is claimed by pushing its next attempt out by a lease, then sent
+ * over a single SMTP connection outside any transaction; failures are rescheduled with exponential backoff
+ * until {@code max-attempts}, after which the message is parked as FAILED.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value("${ooms.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ooms.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${ooms.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${ooms.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${ooms.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${ooms.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<OutboxMessage> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                record(batch, deliver(batch));
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        for (OutboxStatus status : OutboxStatus.values()) {
+            stats.put(status.name().toLowerCase(), outboxMessageRepository.countByStatus(status));
+        }
+        return stats;
+    }
+
+    // A dispatcher that dies mid-batch leaves the lease to run out, after which the messages are picked up again
+    private List<OutboxMessage> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = outboxMessageRepository.findDueForUpdate(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            for (OutboxMessage message : due) {
+                message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+    }
+
+    // Returns the failure for each message that was not sent
+    private Map<Long, Exception> deliver(List<OutboxMessage> batch) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxMessage outbox : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setTo(outbox.getRecipient());
+                helper.setSubject(outbox.getSubject());
+                helper.setText(outbox.getBody());
+                ids.put(message, outbox.getId());
+                messages.add(message);
+            } catch (MessagingException e) {
+                failures.put(outbox.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, cause);
+                }
+            });
+        } catch (MailException e) {
+            ids.values().forEach(id -> failures.put(id, e));
+        }
+        return failures;
+    }
+
+    private void record(List<OutboxMessage> batch, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>(batch.size());
+        List<OutboxMessage> failed = new ArrayList<>(failures.size());
+        for (OutboxMessage message : batch) {
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                sent.add(message.getId());
+                continue;
+            }
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(truncate(String.valueOf(failure.getMessage())));
+            if (attempts >= maxAttempts) {
+                message.setStatus(OutboxStatus.FAILED);
+            } else {
+                message.setNextAttemptAt(now.plusSeconds(backoffSeconds(attempts)));
+            }
+            failed.add(message);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxMessageRepository.markSent(sent, now);
+            }
+            if (!failed.isEmpty()) {
+                outboxMessageRepository.saveAll(failed);
+            }
+        });
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffSeconds);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ooms.service;
+
+import com.ooms.entity.Category;
+import com.ooms.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of detached product snapshots with a fixed time-to-live per entry.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${ooms.product-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${ooms.product-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (now - entry.expiresAt < 0) {
+                    hits.increment();
+                    return Optional.of(snapshot(entry.product));
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        Optional<Product> loaded = loader.apply(id);
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        Product cached = snapshot(loaded.get());
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(id, new Entry(cached, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            }
+        }
+        return Optional.of(snapshot(cached));
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    static Product snapshot(Product source) {
+        Product product = new Product(source.getName(), source.getDescription(), source.getPrice(), source.getStock(), null, source.getImageUrl());
+        product.setId(source.getId());
+        if (source.getCategory() != null) {
+            Category category = new Category(source.getCategory().getName(), null);
+            category.setId(source.getCategory().getId());
+            product.setCategory(category);
+        }
+        return product;
+    }
+
+    private static final class Entry {
+        private final Product product;
+        private final long expiresAt;
+
+        private Entry(Product product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
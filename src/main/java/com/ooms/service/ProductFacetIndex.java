@@ -0,0 +1,273 @@
+package com.ooms.service;
+
+import com.ooms.dto.CategoryNode;
+import com.ooms.dto.FacetCounts;
+import com.ooms.dto.FacetValue;
+import com.ooms.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar copy of each product's category and price, plus running per-category and per-price-bucket counts.
+ * Unfiltered facets come straight from the running counts; filtered facets are a scan over the primitive columns.
+ */
+@Component
+public class ProductFacetIndex {
+
+    // Lower bounds of the price buckets; the last bucket is open-ended
+    static final double[] PRICE_BOUNDS = {0, 25, 50, 100, 250, 500, 1000};
+
+    private static final int NO_CATEGORY = -1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotByProductId = new HashMap<>();
+    private long[] productIds = new long[1024];
+    private int[] categorySlots = new int[1024];
+    private double[] prices = new double[1024];
+    private int size;
+
+    private final Map<Long, Integer> categorySlotById = new HashMap<>();
+    private long[] categoryIds = new long[64];
+    private int[] categoryCounts = new int[64];
+    private int categorySize;
+
+    private final int[] priceCounts = new int[PRICE_BOUNDS.length];
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            slotByProductId.clear();
+            size = 0;
+            categorySlotById.clear();
+            categorySize = 0;
+            Arrays.fill(categoryCounts, 0);
+            Arrays.fill(priceCounts, 0);
+            for (Object[] row : productRepository.findAllIdCategoryIdAndPrice()) {
+                add((Long) row[0], (Long) row[1], (Double) row[2]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long productId, Long categoryId, Double price) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+            add(productId, categoryId, price);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts matching products per category (rolled up the category tree) and per price bucket.
+     * Each facet ignores its own filter, so the category counts respect the price range and vice versa.
+     *
+     * @param productIds  candidate ids from the name index, or null for every product
+     * @param categoryIds allowed category subtree, or null for any category
+     */
+    public FacetCounts count(Collection<Long> productIds, Set<Long> categoryIds, Double minPrice, Double maxPrice) {
+        int[] directCategoryCounts;
+        int[] bucketCounts;
+        lock.readLock().lock();
+        try {
+            if (productIds == null && categoryIds == null && minPrice == null && maxPrice == null) {
+                directCategoryCounts = Arrays.copyOf(categoryCounts, categorySize);
+                bucketCounts = priceCounts.clone();
+            } else {
+                directCategoryCounts = new int[categorySize];
+                bucketCounts = new int[PRICE_BOUNDS.length];
+                boolean[] allowedCategories = allowedCategorySlots(categoryIds);
+                if (productIds == null) {
+                    for (int slot = 0; slot < size; slot++) {
+                        tally(slot, allowedCategories, minPrice, maxPrice, directCategoryCounts, bucketCounts);
+                    }
+                } else {
+                    for (Long productId : productIds) {
+                        Integer slot = slotByProductId.get(productId);
+                        if (slot != null) {
+                            tally(slot, allowedCategories, minPrice, maxPrice, directCategoryCounts, bucketCounts);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new FacetCounts(categoryFacets(directCategoryCounts), priceFacets(bucketCounts));
+    }
+
+    private void tally(int slot, boolean[] allowedCategories, Double minPrice, Double maxPrice, int[] directCategoryCounts, int[] bucketCounts) {
+        double price = prices[slot];
+        int categorySlot = categorySlots[slot];
+        boolean inPriceRange = (minPrice == null || price >= minPrice) && (maxPrice == null || price <= maxPrice);
+        boolean inCategory = allowedCategories == null || (categorySlot != NO_CATEGORY && allowedCategories[categorySlot]);
+        if (inPriceRange && categorySlot != NO_CATEGORY) {
+            directCategoryCounts[categorySlot]++;
+        }
+        if (inCategory) {
+            bucketCounts[bucketOf(price)]++;
+        }
+    }
+
+    private boolean[] allowedCategorySlots(Set<Long> categoryIds) {
+        if (categoryIds == null) {
+            return null;
+        }
+        boolean[] allowed = new boolean[categorySize];
+        for (Long categoryId : categoryIds) {
+            Integer slot = categorySlotById.get(categoryId);
+            if (slot != null) {
+                allowed[slot] = true;
+            }
+        }
+        return allowed;
+    }
+
+    private List<FacetValue> categoryFacets(int[] directCounts) {
+        Map<Long, Integer> countById = new HashMap<>();
+        for (int slot = 0; slot < directCounts.length; slot++) {
+            if (directCounts[slot] > 0) {
+                countById.put(categoryIds[slot], directCounts[slot]);
+            }
+        }
+        List<FacetValue> facets = new ArrayList<>();
+        CategoryTree tree = categoryService.getCategoryTree();
+        Deque<CategoryNode> pending = new ArrayDeque<>(tree.getRoots());
+        while (!pending.isEmpty()) {
+            CategoryNode node = pending.pop();
+            long total = 0;
+            for (Long id : tree.getSubtreeIds(node.getId())) {
+                total += countById.getOrDefault(id, 0);
+            }
+            if (total > 0) {
+                facets.add(new FacetValue(String.valueOf(node.getId()), node.getName(), total));
+                pending.addAll(node.getChildren());
+            }
+        }
+        return facets;
+    }
+
+    private static List<FacetValue> priceFacets(int[] bucketCounts) {
+        List<FacetValue> facets = new ArrayList<>(PRICE_BOUNDS.length);
+        for (int bucket = 0; bucket < PRICE_BOUNDS.length; bucket++) {
+            String label = bucket + 1 < PRICE_BOUNDS.length
+                    ? formatPrice(PRICE_BOUNDS[bucket]) + "-" + formatPrice(PRICE_BOUNDS[bucket + 1])
+                    : formatPrice(PRICE_BOUNDS[bucket]) + "+";
+            facets.add(new FacetValue(label, label, bucketCounts[bucket]));
+        }
+        return facets;
+    }
+
+    private static String formatPrice(double price) {
+        return price == Math.rint(price) ? String.valueOf((long) price) : String.valueOf(price);
+    }
+
+    static int bucketOf(double price) {
+        int bucket = Arrays.binarySearch(PRICE_BOUNDS, price);
+        if (bucket < 0) {
+            bucket = -bucket - 2;
+        }
+        return Math.max(bucket, 0);
+    }
+
+    private void add(Long productId, Long categoryId, Double price) {
+        if (size == productIds.length) {
+            int capacity = size * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            categorySlots = Arrays.copyOf(categorySlots, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        int categorySlot = categoryId == null ? NO_CATEGORY : categorySlot(categoryId);
+        double value = price == null ? 0 : price;
+        productIds[size] = productId;
+        categorySlots[size] = categorySlot;
+        prices[size] = value;
+        slotByProductId.put(productId, size);
+        size++;
+        if (categorySlot != NO_CATEGORY) {
+            categoryCounts[categorySlot]++;
+        }
+        priceCounts[bucketOf(value)]++;
+    }
+
+    private void remove0(Long productId) {
+        Integer slot = slotByProductId.remove(productId);
+        if (slot == null) {
+            return;
+        }
+        if (categorySlots[slot] != NO_CATEGORY) {
+            categoryCounts[categorySlots[slot]]--;
+        }
+        priceCounts[bucketOf(prices[slot])]--;
+
+        // Move the last product into the freed slot to keep the columns dense
+        int last = --size;
+        if (slot != last) {
+            productIds[slot] = productIds[last];
+            categorySlots[slot] = categorySlots[last];
+            prices[slot] = prices[last];
+            slotByProductId.put(productIds[slot], slot);
+        }
+    }
+
+    private int categorySlot(Long categoryId) {
+        Integer slot = categorySlotById.get(categoryId);
+        if (slot != null) {
+            return slot;
+        }
+        if (categorySize == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categorySize * 2);
+            categoryCounts = Arrays.copyOf(categoryCounts, categorySize * 2);
+        }
+        categoryIds[categorySize] = categoryId;
+        categorySlotById.put(categoryId, categorySize);
+        return categorySize++;
+    }
+}
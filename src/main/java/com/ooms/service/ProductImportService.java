@@ -0,0 +1,265 @@
+package com.ooms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ooms.dto.ImportReport;
+import com.ooms.entity.Category;
+import com.ooms.entity.Product;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, price, stock, category_id, image_url) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Value("${ooms.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    public ImportReport importCsv(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        for (String required : List.of("name", "price", "stock")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            long row = run.nextRow();
+            try {
+                run.accept(row, toProduct(
+                        field(record, columns, "name"),
+                        field(record, columns, "description"),
+                        field(record, columns, "price"),
+                        field(record, columns, "stock"),
+                        field(record, columns, "categoryid"),
+                        field(record, columns, "imageurl")));
+            } catch (IllegalArgumentException e) {
+                run.reject(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    public ImportReport importNdjson(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = run.nextRow();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                run.accept(row, toProduct(
+                        text(node, "name"),
+                        text(node, "description"),
+                        text(node, "price"),
+                        text(node, "stock"),
+                        node.hasNonNull("categoryId") ? text(node, "categoryId") : text(node.path("category"), "id"),
+                        text(node, "imageUrl")));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                run.reject(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private Product toProduct(String name, String description, String price, String stock, String categoryId, String imageUrl) {
+        Product product = new Product();
+        product.setName(blankToNull(name));
+        product.setDescription(blankToNull(description));
+        product.setImageUrl(blankToNull(imageUrl));
+        product.setPrice(parse(price, "price", Double::valueOf));
+        product.setStock(parse(stock, "stock", Integer::valueOf));
+
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        Long category = parse(categoryId, "categoryId", Long::valueOf);
+        if (category != null) {
+            if (!categoryService.getCategoryTree().contains(category)) {
+                throw new IllegalArgumentException("Unknown categoryId " + category);
+            }
+            Category reference = new Category();
+            reference.setId(category);
+            product.setCategory(reference);
+        }
+        return product;
+    }
+
+    private void insertChunk(List<Product> chunk) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), ProductImportService::bind));
+    }
+
+    private static void bind(PreparedStatement ps, Product product) throws SQLException {
+        ps.setString(1, product.getName());
+        ps.setString(2, product.getDescription());
+        ps.setDouble(3, product.getPrice());
+        ps.setInt(4, product.getStock());
+        if (product.getCategory() != null) {
+            ps.setLong(5, product.getCategory().getId());
+        } else {
+            ps.setNull(5, Types.BIGINT);
+        }
+        ps.setString(6, product.getImageUrl());
+    }
+
+    private static String normalizeColumn(String column) {
+        return column.replace("\uFEFF", "").trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <T> T parse(String value, String field, Function<String, T> parser) {
+        String trimmed = blankToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return parser.apply(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a valid number: " + trimmed);
+        }
+    }
+
+    // Collects validated rows into chunks, flushes each chunk as one JDBC batch in its own transaction
+    private class ImportRun {
+
+        private final ImportReport report = new ImportReport();
+        private final long startedAt = System.nanoTime();
+        private final List<Product> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+        private long rows;
+
+        long nextRow() {
+            return ++rows;
+        }
+
+        void accept(long row, Product product) {
+            chunk.add(product);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ImportReport.RowError(row, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                insertChunk(chunk);
+                report.setImported(report.getImported() + chunk.size());
+            } catch (DataAccessException e) {
+                // Replay the failed chunk one row at a time so only the offending rows are rejected
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        insertChunk(List.of(chunk.get(i)));
+                        report.setImported(report.getImported() + 1);
+                    } catch (DataAccessException rowFailure) {
+                        reject(chunkRows.get(i), rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        ImportReport finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - startedAt;
+            report.setTotalRows(rows);
+            report.setElapsedMillis(elapsedNanos / 1_000_000);
+            report.setRowsPerSecond(elapsedNanos == 0 ? 0 : report.getImported() * 1_000_000_000.0 / elapsedNanos);
+            if (report.getImported() > 0) {
+                productService.refreshCatalogState();
+            }
+            return report;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ooms.service;
+
+import com.ooms.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // token -> ids of products whose name contains that token
+    private final NavigableMap<String, TreeSet<Long>> postings = new TreeMap<>();
+
+    private final Map<Long, Set<String>> tokensByProduct = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            tokensByProduct.clear();
+            for (Object[] row : productRepository.findAllIdAndName()) {
+                add((Long) row[0], (String) row[1]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long productId, String name) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+            add(productId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of products whose name has a token starting with every token of the query,
+     * in ascending id order, or null when the index cannot answer (not built yet or empty query).
+     */
+    public Set<Long> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    // As above, but also null when more than limit products match: a broad query is answered better by SQL than by
+    // binding thousands of ids, and truncating the set would silently drop matches from filtered, sorted pages
+    public Set<Long> search(String query, int limit) {
+        Set<String> queryTokens = tokenize(query);
+        if (!ready || queryTokens.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> matches = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Set<Long> ids = prefixMatches(token);
+                if (ids.isEmpty()) {
+                    return Set.of();
+                }
+                matches.add(ids);
+            }
+            matches.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            Set<Long> result = new LinkedHashSet<>();
+            for (Long id : matches.get(0)) {
+                boolean inAll = true;
+                for (int i = 1; i < matches.size() && inAll; i++) {
+                    inAll = matches.get(i).contains(id);
+                }
+                if (inAll && result.add(id) && result.size() > limit) {
+                    return null;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> prefixMatches(String prefix) {
+        Collection<TreeSet<Long>> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+        TreeSet<Long> union = new TreeSet<>();
+        for (TreeSet<Long> ids : lists) {
+            union.addAll(ids);
+        }
+        return union;
+    }
+
+    private void add(Long productId, String name) {
+        Set<String> tokens = tokenize(name);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new TreeSet<>()).add(productId);
+        }
+        tokensByProduct.put(productId, tokens);
+    }
+
+    private void remove0(Long productId) {
+        Set<String> tokens = tokensByProduct.remove(productId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            TreeSet<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,26 +1,84 @@
 package com.ooms.service;
 
+import com.ooms.dto.FacetCounts;
+import com.ooms.dto.FacetedProductPage;
+import com.ooms.dto.ProductCursor;
+import com.ooms.dto.ProductFilter;
+import com.ooms.dto.ProductSuggestion;
+import com.ooms.dto.ProductSummary;
 import com.ooms.entity.Category;
 import com.ooms.entity.Product;
 import com.ooms.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    // Name queries matching more products than this use the SQL name predicate instead of an IN list of ids
+    private static final int MAX_INDEXED_IDS = 5000;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // Hands out detached snapshots one row at a time so the persistence context never holds the whole catalog
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+            products.forEach(product -> {
+                consumer.accept(ProductCache.snapshot(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
     public Page<Product> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
@@ -29,23 +87,157 @@ public class ProductService {
         return productRepository.findByCategory(category);
     }
 
+    public List<ProductSuggestion> suggestProducts(String query, int limit) {
+        return productSuggestIndex.suggest(query, Math.max(1, Math.min(limit, ProductSuggestIndex.TOP_K)));
+    }
+
     public List<Product> searchProducts(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        Set<Long> ids = productSearchIndex.search(name, MAX_INDEXED_IDS);
+        if (ids == null) {
+            // Index not built yet, or too many matches to bind as ids
+            return productRepository.findByNameContainingIgnoreCase(name);
+        }
+        return ids.isEmpty() ? List.of() : productRepository.findAllById(ids);
     }
 
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.get(id, productRepository::findWithCategoryById);
     }
 
     public Product save(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCache.invalidate(saved.getId());
+        productSearchIndex.put(saved.getId(), saved.getName());
+        productSuggestIndex.put(saved.getId(), saved.getName());
+        productFacetIndex.put(saved.getId(), saved.getCategory() != null ? saved.getCategory().getId() : null, saved.getPrice());
+        inventoryLedger.stockChanged(saved.getId(), saved.getStock());
+        catalogVersions.productChanged(saved.getId());
+        return saved;
     }
 
     public void delete(Product product) {
-        productRepository.delete(product);
+        productRepository.deleteById(product.getId());
+        productCache.invalidate(product.getId());
+        productSearchIndex.remove(product.getId());
+        productSuggestIndex.remove(product.getId());
+        productFacetIndex.remove(product.getId());
+        inventoryLedger.productRemoved(product.getId());
+        catalogVersions.productChanged(product.getId());
+    }
+
+    @EventListener
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        refreshCatalogState();
+    }
+
+    // Checkout changed stock behind the cache and sold units feed the suggestion ranking
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        event.getQuantities().forEach((productId, quantity) -> {
+            productCache.invalidate(productId);
+            catalogVersions.productChanged(productId);
+            productSuggestIndex.recordSale(productId, quantity);
+        });
+    }
+
+    // The inventory ledger wrote deferred deductions to products.stock; null means any product
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        if (event.getProductIds() == null) {
+            productCache.invalidateAll();
+            catalogVersions.productChanged(null);
+            return;
+        }
+        for (Long productId : event.getProductIds()) {
+            productCache.invalidate(productId);
+            catalogVersions.productChanged(productId);
+        }
+    }
+
+    // For writes that bypass save/delete, such as cascades and bulk imports
+    public void refreshCatalogState() {
+        productCache.invalidateAll();
+        productSearchIndex.rebuild();
+        productSuggestIndex.rebuild();
+        productFacetIndex.rebuild();
+        catalogVersions.productChanged(null);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return productCache.getStats();
+    }
+
+    public List<ProductSummary> getProductSummaries() {
+        return productRepository.findAllSummaries();
+    }
+
+    public List<ProductSummary> getProductsInCategoryTree(Long categoryId) {
+        return productRepository.findSummariesByCategoryIdIn(categoryService.getSubtreeIds(categoryId));
     }
 
     public Page<Product> getProductsWithFilters(String name, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
-        return productRepository.findProductsWithFilters(name, categoryId, minPrice, maxPrice, pageable);
+        ProductFilter filter = buildFilter(name, categoryId, minPrice, maxPrice);
+        if (filter == null) {
+            return Page.empty(pageable);
+        }
+        return productRepository.findProducts(filter, pageable);
+    }
+
+    public FacetedProductPage getProductsWithFacets(String name, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
+        return new FacetedProductPage(getProductsWithFilters(name, categoryId, minPrice, maxPrice, pageable),
+                getFacets(name, categoryId, minPrice, maxPrice));
+    }
+
+    public FacetCounts getFacets(String name, Long categoryId, Double minPrice, Double maxPrice) {
+        if (!productFacetIndex.isReady()) {
+            return null;
+        }
+        // Same id set as the listing: when it falls back to SQL for a broad name, the index cannot count its results
+        Set<Long> ids = productSearchIndex.search(name, MAX_INDEXED_IDS);
+        if (ids == null && name != null && !name.isBlank()) {
+            return null;
+        }
+        Set<Long> categoryIds = categoryId != null ? categoryService.getSubtreeIds(categoryId) : null;
+        return productFacetIndex.count(ids, categoryIds, minPrice, maxPrice);
+    }
+
+    public Slice<Product> getProductsWithFiltersAfter(String name, Long categoryId, Double minPrice, Double maxPrice,
+                                                      String sortBy, boolean descending, String after, int size) {
+        if (!ProductCursor.SORT_KEYS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor paging supports sorting by " + ProductCursor.SORT_KEYS);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductCursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            cursor = ProductCursor.decode(after);
+            if (!cursor.getSortBy().equals(sortBy) || cursor.isDescending() != descending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+        }
+
+        ProductFilter filter = buildFilter(name, categoryId, minPrice, maxPrice);
+        if (filter == null) {
+            return new SliceImpl<>(List.of(), PageRequest.of(0, size), false);
+        }
+        return productRepository.findProductsAfter(filter, sortBy, descending, cursor, size);
+    }
+
+    // Returns null when the name index already proves there are no matches
+    private ProductFilter buildFilter(String name, Long categoryId, Double minPrice, Double maxPrice) {
+        ProductFilter filter = new ProductFilter(name, categoryId, minPrice, maxPrice);
+        if (categoryId != null) {
+            filter.setCategoryIds(categoryService.getSubtreeIds(categoryId));
+        }
+        Set<Long> ids = productSearchIndex.search(name, MAX_INDEXED_IDS);
+        if (ids != null) {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            filter.setIds(ids);
+            filter.setName(null);
+        }
+        return filter;
     }
 }
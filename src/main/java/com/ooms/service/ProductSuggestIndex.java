@@ -0,0 +1,346 @@
+package com.ooms.service;
+
+import com.ooms.dto.ProductSuggestion;
+import com.ooms.repository.OrderRepository;
+import com.ooms.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Radix trie over every word-boundary suffix of each product name ("samsung galaxy s23", "galaxy s23", "s23"),
+ * so a query matches the start of any word. Each node caches its best {@value #TOP_K} products by units sold;
+ * writes only clear the caches along the affected path and the next lookup recomputes them from the children.
+ * Lookups share a read lock, so concurrent keystrokes never wait on each other; a lookup that fills an empty
+ * cache only publishes an array the other readers would compute identically.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    static final int TOP_K = 10;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Node root = new Node("");
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, List<String>> keysByProduct = new HashMap<>();
+    private final Map<Long, Long> unitsSold = new HashMap<>();
+    private final Comparator<Long> ranking = Comparator
+            .comparing((Long id) -> unitsSold.getOrDefault(id, 0L)).reversed()
+            .thenComparing(id -> names.getOrDefault(id, "").length())
+            .thenComparing(id -> id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            root = new Node("");
+            names.clear();
+            keysByProduct.clear();
+            unitsSold.clear();
+            for (Object[] row : orderRepository.sumQuantityByProduct()) {
+                unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            for (Object[] row : productRepository.findAllIdAndName()) {
+                add((Long) row[0], (String) row[1]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long productId, String name) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+            add(productId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove0(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public String nameOf(Long productId) {
+        lock.readLock().lock();
+        try {
+            return names.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordSale(Long productId, int quantity) {
+        if (productId == null || quantity <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unitsSold.merge(productId, (long) quantity, Long::sum);
+            for (String key : keysByProduct.getOrDefault(productId, List.of())) {
+                invalidate(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            long[] top = top(node);
+            List<ProductSuggestion> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                suggestions.add(new ProductSuggestion(top[i], names.get(top[i]), unitsSold.getOrDefault(top[i], 0L)));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long productId, String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        for (String key : keys) {
+            insert(key, productId);
+        }
+        names.put(productId, name);
+        keysByProduct.put(productId, List.copyOf(keys));
+    }
+
+    private void remove0(Long productId) {
+        List<String> keys = keysByProduct.remove(productId);
+        names.remove(productId);
+        if (keys != null) {
+            for (String key : keys) {
+                delete(key, productId);
+            }
+        }
+    }
+
+    private void insert(String key, Long productId) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            node.top = null;
+            if (i == key.length()) {
+                node.terminals().add(productId);
+                return;
+            }
+            char c = key.charAt(i);
+            Node child = node.child(c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                child.terminals().add(productId);
+                node.children().put(c, child);
+                return;
+            }
+            int common = commonPrefixLength(child.edge, key, i);
+            if (common < child.edge.length()) {
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children().put(child.edge.charAt(0), child);
+                node.children().put(c, split);
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+    }
+
+    private void delete(String key, Long productId) {
+        List<Node> path = walk(key);
+        if (path == null) {
+            return;
+        }
+        Node target = path.get(path.size() - 1);
+        if (target.terminals != null) {
+            target.terminals.remove(productId);
+        }
+        for (Node node : path) {
+            node.top = null;
+        }
+        // Drop nodes that no longer lead to any product
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if ((node.terminals != null && !node.terminals.isEmpty()) || (node.children != null && !node.children.isEmpty())) {
+                break;
+            }
+            path.get(i - 1).children.remove(node.edge.charAt(0));
+        }
+    }
+
+    private void invalidate(String key) {
+        List<Node> path = walk(key);
+        if (path != null) {
+            for (Node node : path) {
+                node.top = null;
+            }
+        }
+    }
+
+    // Nodes from the root to the node that ends exactly at key, or null if key is not stored
+    private List<Node> walk(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null || !key.startsWith(node.edge, i)) {
+                return null;
+            }
+            path.add(node);
+            i += node.edge.length();
+        }
+        return path;
+    }
+
+    // Node whose subtree holds every key starting with prefix; the prefix may end part-way along its edge
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            node = node.child(prefix.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            int remaining = prefix.length() - i;
+            if (remaining <= node.edge.length()) {
+                return node.edge.startsWith(prefix.substring(i)) ? node : null;
+            }
+            if (!prefix.startsWith(node.edge, i)) {
+                return null;
+            }
+            i += node.edge.length();
+        }
+        return node;
+    }
+
+    // Runs under the read lock; concurrent readers may fill the same cache, always with the same result
+    private long[] top(Node node) {
+        long[] cached = node.top;
+        if (cached != null) {
+            return cached;
+        }
+        Set<Long> candidates = new HashSet<>();
+        if (node.terminals != null) {
+            candidates.addAll(node.terminals);
+        }
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                for (long id : top(child)) {
+                    candidates.add(id);
+                }
+            }
+        }
+        long[] top = candidates.stream().sorted(ranking).limit(TOP_K).mapToLong(Long::longValue).toArray();
+        node.top = top;
+        return top;
+    }
+
+    private static int commonPrefixLength(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && edge.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static final class Node {
+        private String edge;
+        private TreeMap<Character, Node> children;
+        private Set<Long> terminals;
+        private volatile long[] top;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private Node child(char c) {
+            return children == null ? null : children.get(c);
+        }
+
+        private TreeMap<Character, Node> children() {
+            if (children == null) {
+                children = new TreeMap<>();
+            }
+            return children;
+        }
+
+        private Set<Long> terminals() {
+            if (terminals == null) {
+                terminals = new HashSet<>();
+            }
+            return terminals;
+        }
+    }
+}
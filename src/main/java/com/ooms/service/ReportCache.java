@@ -0,0 +1,173 @@
+package com.ooms.service;
+
+import com.ooms.dto.CachedReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Admin report results keyed by report name and parameters. A scheduled job recomputes entries that are due,
+ * so polling dashboards read memory instead of re-running aggregates; concurrent computations of the same key
+ * collapse into one. Entries nobody has read for {@code idle-ms} are dropped. Reports older than
+ * {@code max-stale-ms} are recomputed on read rather than served.
+ */
+@Component
+public class ReportCache {
+
+    @Value("${ooms.report-cache.refresh-interval-ms:60000}")
+    private long refreshIntervalMillis;
+
+    @Value("${ooms.report-cache.stale-after-ms:120000}")
+    private long staleAfterMillis;
+
+    @Value("${ooms.report-cache.max-stale-ms:600000}")
+    private long maxStaleMillis;
+
+    @Value("${ooms.report-cache.idle-ms:900000}")
+    private long idleMillis;
+
+    @Value("${ooms.report-cache.max-entries:256}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param refresh recompute now instead of serving the cached result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedReport<T> get(String key, boolean refresh, Supplier<T> compute) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            evictIfFull();
+            entry = entries.computeIfAbsent(key, k -> new Entry(compute));
+        }
+        entry.lastReadNanos = System.nanoTime();
+        Result result = entry.result;
+        if (refresh || result == null || ageMillis(result) > maxStaleMillis) {
+            result = entry.refresh();
+        }
+        return new CachedReport<>((T) result.value, result.computedAt, ageMillis(result) > staleAfterMillis);
+    }
+
+    // For reports that are already served from memory: same response shape, always current
+    public <T> CachedReport<T> live(Supplier<T> compute) {
+        return new CachedReport<>(compute.get(), LocalDateTime.now(), false);
+    }
+
+    @Scheduled(fixedDelayString = "${ooms.report-cache.refresh-interval-ms:60000}")
+    public void refreshDue() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> TimeUnit.NANOSECONDS.toMillis(now - e.getValue().lastReadNanos) > idleMillis);
+        for (Entry entry : entries.values()) {
+            Result result = entry.result;
+            if (result != null && ageMillis(result) < refreshIntervalMillis) {
+                continue;
+            }
+            try {
+                entry.refresh();
+            } catch (RuntimeException e) {
+                // The previous result stays and is reported as stale until a refresh succeeds
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    // Drops every entry whose key starts with one of the prefixes, e.g. after the data behind them was rebuilt
+    public void invalidate(String... keyPrefixes) {
+        entries.keySet().removeIf(key -> {
+            for (String prefix : keyPrefixes) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("refreshIntervalMillis", refreshIntervalMillis);
+        stats.put("stale", entries.values().stream().filter(e -> e.result != null && ageMillis(e.result) > staleAfterMillis).count());
+        stats.put("failures", entries.values().stream().mapToLong(e -> e.failures).sum());
+        return stats;
+    }
+
+    private void evictIfFull() {
+        while (entries.size() >= maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().lastReadNanos))
+                    .ifPresent(eldest -> entries.remove(eldest.getKey(), eldest.getValue()));
+        }
+    }
+
+    private static long ageMillis(Result result) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - result.computedNanos);
+    }
+
+    private record Result(Object value, LocalDateTime computedAt, long computedNanos) {
+    }
+
+    private static final class Entry {
+
+        private final Supplier<?> compute;
+        private final AtomicReference<CompletableFuture<Result>> inFlight = new AtomicReference<>();
+        private volatile Result result;
+        private volatile long lastReadNanos = System.nanoTime();
+        private volatile long failures;
+
+        Entry(Supplier<?> compute) {
+            this.compute = compute;
+        }
+
+        // Joins a computation already running for this key instead of starting a second one
+        Result refresh() {
+            CompletableFuture<Result> mine = new CompletableFuture<>();
+            CompletableFuture<Result> running = inFlight.compareAndExchange(null, mine);
+            if (running != null) {
+                return await(running);
+            }
+            try {
+                LocalDateTime startedAt = LocalDateTime.now();
+                long startedNanos = System.nanoTime();
+                Result computed = new Result(compute.get(), startedAt, startedNanos);
+                result = computed;
+                mine.complete(computed);
+                return computed;
+            } catch (Throwable e) {
+                // Errors too, or callers joined on this computation would wait forever
+                failures++;
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.set(null);
+            }
+        }
+
+        private static Result await(CompletableFuture<Result> running) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
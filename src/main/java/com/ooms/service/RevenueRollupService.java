@@ -0,0 +1,101 @@
+package com.ooms.service;
+
+import com.ooms.dto.DailyRevenueRow;
+import com.ooms.entity.Order;
+import com.ooms.repository.DailyRevenueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps per-day revenue and order counts in the daily_revenue table. Updates run in the caller's transaction, so
+ * the rollups change exactly when the orders do, and reports read one row per day and slot instead of scanning
+ * orders. Archiving orders leaves their rollups in place.
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final int MAX_REPORT_DAYS = 3660;
+
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void orderPlaced(Order order) {
+        dailyRevenueRepository.addPlaced(order.getCreatedAt().toLocalDate(), order.getId(), order.getTotalAmount());
+    }
+
+    /**
+     * Records that the orders no longer count towards revenue. Call it once per order, on the transition that
+     * first takes it out (cancellation, or a refund of an order that was not cancelled).
+     */
+    public void ordersReversed(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            dailyRevenueRepository.addReversed(orderIds);
+        }
+    }
+
+    /**
+     * Recomputes the rollups from the orders, for backfill or after a manual data fix. Orders placed on the
+     * affected days while this runs may be counted twice or not at all, so run it when those days are quiet.
+     */
+    public Map<String, Object> rebuild(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long startedAt = System.nanoTime();
+        Integer rows = transactionTemplate.execute(status -> dailyRevenueRepository.rebuild(from, to));
+        Map<String, Object> report = new HashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("rows", rows);
+        report.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return report;
+    }
+
+    // Both bounds inclusive
+    public Map<String, Object> getRevenueReport(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Revenue reports cover at most " + MAX_REPORT_DAYS + " days");
+        }
+        List<DailyRevenueRow> days = dailyRevenueRepository.findDaily(from, to);
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal reversedRevenue = BigDecimal.ZERO;
+        long orders = 0;
+        long reversedOrders = 0;
+        for (DailyRevenueRow day : days) {
+            revenue = revenue.add(day.revenue());
+            reversedRevenue = reversedRevenue.add(day.reversedRevenue());
+            orders += day.orderCount();
+            reversedOrders += day.reversedCount();
+        }
+        Map<String, Object> report = new HashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("total", revenue.subtract(reversedRevenue));
+        report.put("grossRevenue", revenue);
+        report.put("reversedRevenue", reversedRevenue);
+        report.put("orders", orders);
+        report.put("reversedOrders", reversedOrders);
+        report.put("days", days);
+        return report;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return dailyRevenueRepository.getNetRevenue();
+    }
+}
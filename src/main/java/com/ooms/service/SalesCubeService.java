@@ -0,0 +1,227 @@
+package com.ooms.service;
+
+import com.ooms.dto.SalesCubeCell;
+import com.ooms.entity.OrderStatus;
+import com.ooms.repository.CategoryRepository;
+import com.ooms.repository.SalesReportRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Revenue, units and order counts per time bucket, category and status. The order id range is split
+ * fork/join-style into partitions that are scanned in parallel, each on its own connection; every worker thread
+ * adds into its own primitive-array cube and the cubes are summed at the end, so memory is bounded by the pool
+ * size times the cube size, not by the number of orders. Partitions read independently, so an order that changes
+ * while the report runs may be counted in its old or new status.
+ */
+@Service
+public class SalesCubeService {
+
+    public enum Granularity {
+        HOUR(Duration.ofHours(1)),
+        DAY(Duration.ofDays(1)),
+        WEEK(Duration.ofDays(7));
+
+        private final long seconds;
+
+        Granularity(Duration bucket) {
+            this.seconds = bucket.getSeconds();
+        }
+    }
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @Value("${ooms.sales-report.parallelism:4}")
+    private int parallelism;
+
+    @Value("${ooms.sales-report.partition-ids:50000}")
+    private long partitionIds;
+
+    @Value("${ooms.sales-report.max-cells:500000}")
+    private int maxCells;
+
+    @Autowired
+    private SalesReportRepository salesReportRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private ForkJoinPool pool;
+
+    /**
+     * @param from first day of the report
+     * @param to   last day of the report, inclusive; weekly buckets start on Mondays
+     */
+    public Map<String, Object> report(LocalDate from, LocalDate to, Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long startedAt = System.nanoTime();
+        LocalDateTime scanFrom = from.atStartOfDay();
+        LocalDateTime scanTo = to.plusDays(1).atStartOfDay();
+        LocalDateTime origin = granularity == Granularity.WEEK
+                ? from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay()
+                : scanFrom;
+
+        List<Long> categoryIds = new ArrayList<>();
+        List<String> categoryNames = new ArrayList<>();
+        Map<Long, Integer> categoryIndex = new HashMap<>();
+        for (Object[] row : categoryRepository.findAllIdNameAndParentId()) {
+            categoryIndex.put((Long) row[0], categoryIds.size());
+            categoryIds.add((Long) row[0]);
+            categoryNames.add((String) row[1]);
+        }
+        // Last slot collects uncategorized products and products deleted since the order
+        categoryIds.add(null);
+        categoryNames.add(null);
+
+        long seconds = scanTo.toEpochSecond(ZoneOffset.UTC) - origin.toEpochSecond(ZoneOffset.UTC);
+        long buckets = (seconds + granularity.seconds - 1) / granularity.seconds;
+        long cells = buckets * categoryIds.size() * STATUSES.length;
+        if (cells > maxCells) {
+            throw new IllegalArgumentException("Report would have " + cells + " cells (limit " + maxCells
+                    + "); use a coarser granularity or a shorter range");
+        }
+        Layout layout = new Layout(scanFrom, scanTo, origin.toEpochSecond(ZoneOffset.UTC), granularity.seconds,
+                categoryIndex, categoryIds.size(), (int) cells);
+
+        Cube cube = new Cube(layout.cells);
+        long[] ids = salesReportRepository.findIdRange(scanFrom, scanTo);
+        AtomicInteger partitions = new AtomicInteger();
+        if (ids != null) {
+            Map<Thread, Cube> perThread = new ConcurrentHashMap<>();
+            pool().invoke(new ScanTask(layout, ids[0], ids[1], perThread, partitions));
+            perThread.values().forEach(cube::add);
+        }
+
+        List<SalesCubeCell> rows = new ArrayList<>();
+        double revenue = 0;
+        long units = 0;
+        long orders = 0;
+        for (int cell = 0; cell < layout.cells; cell++) {
+            if (cube.orders[cell] == 0) {
+                continue;
+            }
+            int status = cell % STATUSES.length;
+            int category = cell / STATUSES.length % layout.categories;
+            long bucket = cell / STATUSES.length / layout.categories;
+            rows.add(new SalesCubeCell(origin.plusSeconds(bucket * granularity.seconds), categoryIds.get(category),
+                    categoryNames.get(category), STATUSES[status], cube.revenue[cell], cube.units[cell], cube.orders[cell]));
+            revenue += cube.revenue[cell];
+            units += cube.units[cell];
+            orders += cube.orders[cell];
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("granularity", granularity);
+        report.put("revenue", revenue);
+        report.put("units", units);
+        // An order with products in several categories counts once in each
+        report.put("orderCategoryPairs", orders);
+        report.put("cells", rows);
+        report.put("partitions", partitions.get());
+        report.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return report;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Dedicated pool: the workers block on JDBC, and each holds a pooled connection while it scans
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    private record Layout(LocalDateTime from, LocalDateTime to, long originSecond, long bucketSeconds,
+                          Map<Long, Integer> categoryIndex, int categories, int cells) {
+
+        int cell(LocalDateTime createdAt, OrderStatus status, Long categoryId) {
+            long bucket = (createdAt.toEpochSecond(ZoneOffset.UTC) - originSecond) / bucketSeconds;
+            int category = categoryId == null ? categories - 1 : categoryIndex.getOrDefault(categoryId, categories - 1);
+            return (int) ((bucket * categories + category) * STATUSES.length + status.ordinal());
+        }
+    }
+
+    private static final class Cube {
+
+        private final double[] revenue;
+        private final long[] units;
+        private final long[] orders;
+
+        Cube(int cells) {
+            revenue = new double[cells];
+            units = new long[cells];
+            orders = new long[cells];
+        }
+
+        void add(Cube other) {
+            for (int i = 0; i < revenue.length; i++) {
+                revenue[i] += other.revenue[i];
+                units[i] += other.units[i];
+                orders[i] += other.orders[i];
+            }
+        }
+    }
+
+    private final class ScanTask extends RecursiveAction {
+
+        private final Layout layout;
+        private final long fromId;
+        private final long toId;
+        private final Map<Thread, Cube> perThread;
+        private final AtomicInteger partitions;
+
+        ScanTask(Layout layout, long fromId, long toId, Map<Thread, Cube> perThread, AtomicInteger partitions) {
+            this.layout = layout;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.perThread = perThread;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected void compute() {
+            if (toId - fromId < partitionIds) {
+                // A worker runs one partition at a time, so its cube needs no synchronization
+                Cube cube = perThread.computeIfAbsent(Thread.currentThread(), thread -> new Cube(layout.cells));
+                partitions.incrementAndGet();
+                salesReportRepository.scan(layout.from, layout.to, fromId, toId, (createdAt, status, categoryId, units, revenue) -> {
+                    int cell = layout.cell(createdAt, status, categoryId);
+                    cube.revenue[cell] += revenue;
+                    cube.units[cell] += units;
+                    cube.orders[cell]++;
+                });
+                return;
+            }
+            long mid = fromId + (toId - fromId) / 2;
+            invokeAll(new ScanTask(layout, fromId, mid, perThread, partitions), new ScanTask(layout, mid + 1, toId, perThread, partitions));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ooms.service;
+
+import java.util.Set;
+
+public class StockFlushedEvent {
+
+    private final Set<Long> productIds;
+
+    public StockFlushedEvent(Set<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+}
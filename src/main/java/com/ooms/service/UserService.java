@@ -1,5 +1,6 @@
 package com.ooms.service;
 
+import com.ooms.dto.UserSummary;
 import com.ooms.entity.Role;
 import com.ooms.entity.User;
 import com.ooms.repository.UserRepository;
@@ -54,6 +55,10 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
 
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -1,5 +1,6 @@
 package com.ooms.service;
 
+import com.ooms.dto.WishlistItemView;
 import com.ooms.entity.User;
 import com.ooms.entity.WishlistItem;
 import com.ooms.repository.WishlistRepository;
@@ -18,6 +19,10 @@ public class WishlistService {
         return wishlistRepository.findByUser(user);
     }
 
+    public List<WishlistItemView> getWishlistViews(User user) {
+        return wishlistRepository.findViewsByUserId(user.getId());
+    }
+
     public WishlistItem addToWishlist(WishlistItem item) {
         return wishlistRepository.save(item);
     }
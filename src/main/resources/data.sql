@@ -25,22 +25,29 @@ INSERT INTO addresses (user_id, address_line, city, state, zip, is_default) VALU
 INSERT INTO addresses (user_id, address_line, city, state, zip, is_default) VALUES (2, '456 Side St', 'Pokhara', 'Gandaki', '33700', false);
 
 -- Insert cart items
-INSERT INTO cart (user_id, product_id, quantity) VALUES (2, 1, 1);
-INSERT INTO cart (user_id, product_id, quantity) VALUES (2, 3, 1);
+INSERT INTO cart (id, user_id, product_id, quantity) VALUES (1, 2, 1, 1);
+INSERT INTO cart (id, user_id, product_id, quantity) VALUES (2, 2, 3, 1);
 
 -- Insert wishlist items
 INSERT INTO wishlist (user_id, product_id) VALUES (2, 2);
 INSERT INTO wishlist (user_id, product_id) VALUES (2, 4);
 
 -- Insert orders
-INSERT INTO orders (user_id, total_amount, status, payment_status, created_at) VALUES (2, 2999.98, 'PLACED', 'PENDING', NOW());
+INSERT INTO orders (id, user_id, total_amount, status, payment_status, created_at, stock_applied, version) VALUES (1, 2, 2999.98, 'PLACED', 'PENDING', NOW(), true, 0);
 
 -- Insert order items
-INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (1, 1, 1, 999.99);
-INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (1, 3, 1, 1999.99);
+INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (1, 1, 1, 1, 999.99);
+INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (2, 1, 3, 1, 1999.99);
 
 -- Insert payments
-INSERT INTO payments (order_id, transaction_id, amount, status, method) VALUES (1, 'TXN123456', 2999.98, 'PENDING', 'STRIPE');
+INSERT INTO payments (id, order_id, transaction_id, amount, status, method) VALUES (1, 1, 'TXN123456', 2999.98, 'PENDING', 'STRIPE');
 
 -- Insert delivery assignments
 INSERT INTO delivery_assignments (order_id, staff_id, status) VALUES (1, 3, 'ASSIGNED');
+
+-- Move the table-backed id generators past the explicit ids above
+UPDATE id_generators SET next_val = 1000 WHERE name IN ('cart', 'orders', 'order_items', 'payments');
+
+-- Seed the daily revenue rollups from the orders above (same slotting as DailyRevenueRepositoryImpl)
+INSERT INTO daily_revenue (day, slot, revenue, order_count, reversed_revenue, reversed_count)
+SELECT DATE(created_at), id % 16, SUM(total_amount), COUNT(*), 0, 0 FROM orders GROUP BY DATE(created_at), id % 16;
@@ -0,0 +1,4 @@
+DROP TABLE IF EXISTS delivery_assignments_archive;
+DROP TABLE IF EXISTS payments_archive;
+DROP TABLE IF EXISTS order_items_archive;
+DROP TABLE IF EXISTS orders_archive;
@@ -0,0 +1,49 @@
+-- Cold copies of finished orders, created and dropped together with the hot tables they mirror.
+-- No foreign keys: archived rows may outlive the products and users they reference.
+-- Enum columns are plain VARCHARs so a new status never has to be added here before rows can move.
+-- Any column added to orders, order_items, payments or delivery_assignments needs adding here and to
+-- OrderArchiveRepository's column lists.
+
+CREATE TABLE orders_archive (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    total_amount FLOAT(53) NOT NULL,
+    status VARCHAR(32),
+    version BIGINT,
+    payment_status VARCHAR(32),
+    created_at DATETIME(6),
+    stock_applied BIT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_orders_archive_user_id_created_at (user_id, created_at),
+    INDEX idx_orders_archive_created_at (created_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_items_archive (
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    price FLOAT(53) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_order_items_archive_order_id (order_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payments_archive (
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    transaction_id VARCHAR(255),
+    amount FLOAT(53) NOT NULL,
+    status VARCHAR(32),
+    method VARCHAR(32),
+    PRIMARY KEY (id),
+    INDEX idx_payments_archive_order_id (order_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE delivery_assignments_archive (
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    staff_id BIGINT NOT NULL,
+    status VARCHAR(32),
+    PRIMARY KEY (id),
+    INDEX idx_delivery_assignments_archive_order_id (order_id)
+) ENGINE=InnoDB;
@@ -90,7 +90,8 @@ async function loadDashboardStats() {
         if (productsRes.ok) products = await productsRes.json();
         if (ordersRes.ok) orders = await ordersRes.json();
         if (usersRes.ok) users = await usersRes.json();
-        if (revenueRes.ok) revenue = await revenueRes.json();
+        // Cached reports come wrapped as { report, computedAt, stale }
+        if (revenueRes.ok) revenue = (await revenueRes.json()).report;
 
         // Use sample data if API returns empty
         if (products.length === 0) products = getSampleProducts();
@@ -0,0 +1,237 @@
+package com.ooms.entity;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the JDBC work Hibernate does to insert orders with 20 lines under the application's batching
+ * settings: the shipped {@link Order} and {@link OrderItem} mapping against an IDENTITY-mapped baseline of the
+ * same shape. The figures in the README's "Insert Batching" section come from this test.
+ */
+class InsertBatchingTest {
+
+    private static final int LINES = 20;
+
+    private static final int ORDERS = 10;
+
+    private static StandardServiceRegistry registry;
+
+    private static SessionFactory sessionFactory;
+
+    private static User customer;
+
+    private static final List<Product> products = new ArrayList<>();
+
+    @BeforeAll
+    static void start() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL, "jdbc:h2:mem:insert_batching;MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true)
+                .applySetting(AvailableSettings.BATCH_VERSIONED_DATA, true)
+                // Spring Boot's naming, so the tables match the application's schema
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcCounter.class.getName())
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Address.class)
+                .addAnnotatedClass(CartItem.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(DeliveryAssignment.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderItem.class)
+                .addAnnotatedClass(Payment.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(WishlistItem.class)
+                .addAnnotatedClass(IdentityOrder.class)
+                .addAnnotatedClass(IdentityLine.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            customer = new User("Batching Test", "batching@example.com", "secret", Role.CUSTOMER);
+            session.persist(customer);
+            for (int i = 0; i < LINES; i++) {
+                Product product = new Product("Product " + i, null, 10.0 + i, 1000, null, null);
+                session.persist(product);
+                products.add(product);
+            }
+        });
+    }
+
+    @AfterAll
+    static void stop() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void identityIdsInsertEveryRowOnItsOwn() {
+        Counts counts = measure(InsertBatchingTest::identityOrder);
+
+        assertThat(counts.prepared()).as("IDENTITY baseline: %s", counts).isEqualTo(ORDERS * (1 + LINES));
+        assertThat(counts.executed()).as("IDENTITY baseline: %s", counts).isEqualTo(ORDERS * (1 + LINES));
+        assertThat(counts.batches()).as("IDENTITY baseline: %s", counts).isZero();
+    }
+
+    @Test
+    void ordersAndItemsInsertEachTableAsOneBatch() {
+        Counts counts = measure(InsertBatchingTest::order);
+
+        // One batch per table and order; the only statements run singly are id block allocations
+        assertThat(counts.batches()).as("Order/OrderItem: %s", counts).isEqualTo(ORDERS * 2);
+        assertThat(counts.prepared() - counts.executed()).as("Order/OrderItem: %s", counts).isEqualTo(ORDERS * 2);
+        // Each allocation is a SELECT ... FOR UPDATE and an UPDATE on id_generators and yields 50 ids:
+        // blocks for the lines, one more for a partly used block, one for the orders
+        int blocks = (ORDERS * LINES + 49) / 50 + 1 + 1;
+        assertThat(counts.executed() % 2).as("Order/OrderItem: %s", counts).isZero();
+        assertThat(counts.executed()).as("Order/OrderItem: %s", counts).isLessThanOrEqualTo(blocks * 2);
+    }
+
+    // Places one warm-up order so both sides start with their tables and id rows in place, then counts
+    // the JDBC work of placing ORDERS orders of LINES lines, each in its own transaction
+    private static Counts measure(Supplier<Object> newOrder) {
+        sessionFactory.inTransaction(session -> session.persist(newOrder.get()));
+        JdbcCounter.reset();
+        for (int i = 0; i < ORDERS; i++) {
+            sessionFactory.inTransaction(session -> session.persist(newOrder.get()));
+        }
+        return JdbcCounter.snapshot();
+    }
+
+    private static Order order() {
+        Order order = new Order(customer, 0.0, OrderStatus.PLACED, PaymentStatus.PENDING);
+        Set<OrderItem> items = new HashSet<>();
+        double total = 0;
+        for (Product product : products) {
+            items.add(new OrderItem(order, product, 1, product.getPrice()));
+            total += product.getPrice();
+        }
+        order.setOrderItems(items);
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    private static IdentityOrder identityOrder() {
+        IdentityOrder order = new IdentityOrder();
+        for (int i = 0; i < LINES; i++) {
+            order.lines.add(new IdentityLine(order));
+        }
+        return order;
+    }
+
+    record Counts(int prepared, int executed, int batches) {
+
+        @Override
+        public String toString() {
+            return prepared + " statements prepared, " + executed + " executed singly, " + batches + " batches";
+        }
+    }
+
+    public static class JdbcCounter extends BaseSessionEventListener {
+
+        private static int prepared;
+
+        private static int executed;
+
+        private static int batches;
+
+        static synchronized void reset() {
+            prepared = 0;
+            executed = 0;
+            batches = 0;
+        }
+
+        static synchronized Counts snapshot() {
+            return new Counts(prepared, executed, batches);
+        }
+
+        @Override
+        public void jdbcPrepareStatementStart() {
+            synchronized (JdbcCounter.class) {
+                prepared++;
+            }
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            synchronized (JdbcCounter.class) {
+                executed++;
+            }
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            synchronized (JdbcCounter.class) {
+                batches++;
+            }
+        }
+    }
+
+    @Entity(name = "IdentityOrder")
+    @Table(name = "identity_orders")
+    static class IdentityOrder {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Version
+        Long version;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        List<IdentityLine> lines = new ArrayList<>();
+    }
+
+    @Entity(name = "IdentityLine")
+    @Table(name = "identity_order_items")
+    static class IdentityLine {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "order_id", nullable = false)
+        IdentityOrder order;
+
+        Integer quantity = 1;
+
+        IdentityLine() {}
+
+        IdentityLine(IdentityOrder order) {
+            this.order = order;
+        }
+    }
+}
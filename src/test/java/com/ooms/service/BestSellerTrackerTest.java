@@ -0,0 +1,129 @@
+package com.ooms.service;
+
+import com.ooms.dto.BestSeller;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestSellerTrackerTest {
+
+    // A whole minute, so HOUR buckets start exactly here
+    private static final long START = 1_700_000_040_000L;
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void summaryBoundsEveryProductWhenThereAreMoreThanItsCapacity() {
+        BestSellerTracker.Summary summary = new BestSellerTracker.Summary(20);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long productId = skewed(random, 200);
+            long units = 1 + random.nextInt(3);
+            summary.add(productId, units);
+            exact.merge(productId, units, Long::sum);
+        }
+
+        assertThat(summary.counters).hasSize(20);
+        assertThat(summary.total).isEqualTo(exact.values().stream().mapToLong(Long::longValue).sum());
+        long minCount = summary.minCount();
+        assertThat(minCount).isPositive();
+        exact.forEach((productId, units) -> {
+            BestSellerTracker.Counter counter = summary.counters.get(productId);
+            if (counter == null) {
+                assertThat(units).isLessThanOrEqualTo(minCount);
+            } else {
+                assertThat(counter.count - counter.error).isLessThanOrEqualTo(units);
+                assertThat(counter.count).isGreaterThanOrEqualTo(units);
+            }
+        });
+        // The heavy hitters are far above the eviction floor, so they are never evicted
+        for (long productId = 0; productId < 3; productId++) {
+            assertThat(summary.counters).containsKey(productId);
+        }
+    }
+
+    @Test
+    void ringBoundsEveryReportedProductAcrossBuckets() {
+        BestSellerTracker.Ring ring = new BestSellerTracker.Ring(BestSellerTracker.Window.HOUR, 20, START);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int minute = 0; minute < 60; minute++) {
+            for (int i = 0; i < 500; i++) {
+                long productId = skewed(random, 200);
+                int units = 1 + random.nextInt(3);
+                ring.add(productId, units, START + minute * MINUTE + random.nextInt((int) MINUTE));
+                exact.merge(productId, (long) units, Long::sum);
+            }
+        }
+
+        BestSellerTracker.Top top = ring.top(10, START + 59 * MINUTE);
+        assertThat(top.products()).hasSize(10);
+        assertThat(top.totalUnits()).isEqualTo(exact.values().stream().mapToLong(Long::longValue).sum());
+        assertThat(top.maxError()).isPositive();
+        for (BestSeller seller : top.products()) {
+            long units = exact.getOrDefault(seller.productId(), 0L);
+            assertThat(seller.minUnits()).isLessThanOrEqualTo(units);
+            assertThat(units).isLessThanOrEqualTo(seller.units() + top.maxError());
+        }
+        assertThat(top.products()).extracting(BestSeller::productId).contains(0L, 1L, 2L);
+    }
+
+    @Test
+    void bucketsExpireAsTheRingRotates() {
+        BestSellerTracker.Ring ring = new BestSellerTracker.Ring(BestSellerTracker.Window.HOUR, 20, START);
+        ring.add(1L, 5, START);
+        ring.add(2L, 3, START + 30 * MINUTE);
+
+        // 61 one-minute buckets: the first one is still covered 60 minutes later
+        BestSellerTracker.Top stillCovered = ring.top(10, START + 60 * MINUTE);
+        assertThat(stillCovered.products()).extracting(BestSeller::productId).containsExactly(1L, 2L);
+        assertThat(stillCovered.totalUnits()).isEqualTo(8);
+
+        BestSellerTracker.Top rotated = ring.top(10, START + 61 * MINUTE);
+        assertThat(rotated.products()).extracting(BestSeller::productId).containsExactly(2L);
+        assertThat(rotated.totalUnits()).isEqualTo(3);
+
+        BestSellerTracker.Top empty = ring.top(10, START + 91 * MINUTE);
+        assertThat(empty.products()).isEmpty();
+        assertThat(empty.totalUnits()).isZero();
+
+        // Lines older than the window are ignored rather than landing in a reused bucket
+        ring.add(3L, 4, START);
+        assertThat(ring.top(10, START + 91 * MINUTE).products()).isEmpty();
+    }
+
+    @Test
+    void topMatchesExactCountsWhenNothingIsEvicted() {
+        BestSellerTracker.Ring ring = new BestSellerTracker.Ring(BestSellerTracker.Window.DAY, 50, START);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(3);
+        long hour = 60 * MINUTE;
+        for (int i = 0; i < 5_000; i++) {
+            long productId = skewed(random, 40);
+            int units = 1 + random.nextInt(5);
+            ring.add(productId, units, START + random.nextInt(24) * hour + random.nextInt((int) hour));
+            exact.merge(productId, (long) units, Long::sum);
+        }
+
+        BestSellerTracker.Top top = ring.top(15, START + 23 * hour);
+        assertThat(top.maxError()).isZero();
+        List<BestSeller> expected = new ArrayList<>();
+        exact.forEach((productId, units) -> expected.add(new BestSeller(productId, null, units, units)));
+        expected.sort(Comparator.comparingLong(BestSeller::units).reversed().thenComparing(BestSeller::productId));
+        assertThat(top.products()).containsExactlyElementsOf(expected.subList(0, 15));
+    }
+
+    // Roughly Zipf-distributed ids: product 0 sells most, each later one less
+    private static long skewed(Random random, int products) {
+        double u = random.nextDouble();
+        return Math.min(products - 1, (long) Math.floor(Math.pow(products + 1.0, u)) - 1);
+    }
+}